@@ -5,6 +5,9 @@ import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxRegistrations;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
 import org.springframework.context.annotation.Configuration;
@@ -17,7 +20,7 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
 
 @AutoConfiguration
 @ConditionalOnWebApplication
-@AutoConfigureBefore({ WebMvcAutoConfiguration.class })
+@AutoConfigureBefore({ WebMvcAutoConfiguration.class, WebFluxAutoConfiguration.class })
 
 public class HypertextMvcAutoConfiguration implements WebMvcRegistrations {
 
@@ -26,6 +29,21 @@ public class HypertextMvcAutoConfiguration implements WebMvcRegistrations {
 		return new HyperTextRequestMappingHandlerMapping();
 	}
 
+	/**
+	 * Registers the reactive version of the request mapping that understands
+	 * {@code @HyperTextMapping} in a WebFlux application.
+	 */
+	@ConditionalOnWebApplication(type = Type.REACTIVE)
+	@Configuration(proxyBeanMethods = false)
+	static class HypertextWebFluxConfiguration implements WebFluxRegistrations {
+
+		@Override
+		public org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+			return new org.springframework.hypertext.webflux.HyperTextRequestMappingHandlerMapping();
+		}
+
+	}
+
 	/**
 	 * Enables all of Htmx, Unpoly, and Turbo support if none is already available.
 	 * Each one can be switched off using the corresponding enabled property.
@@ -0,0 +1,62 @@
+package org.springframework.experimental.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hypertext.webmvc.HyperTextRequest;
+import org.springframework.hypertext.webmvc.htmx.HtmxMapping;
+import org.springframework.hypertext.webmvc.htmx.HtmxTriggerResponse;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+class ReactiveApplicationTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void testTrigger() {
+		client.get().uri("/trigger").header("HX-Request", "true").exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals("HX-Trigger", "eventTriggered")
+				.expectHeader().valueEquals("Vary", "HX-Request")
+				.expectBody(String.class).isEqualTo("true");
+	}
+
+	@Test
+	void testMapping() {
+		client.get().uri("/mapped").header("HX-Request", "true").exchange()
+				.expectBody(String.class).isEqualTo("htmx");
+		client.get().uri("/mapped").exchange()
+				.expectBody(String.class).isEqualTo("page");
+	}
+
+	@SpringBootApplication
+	@RestController
+	static class ReactiveApplication {
+
+		@GetMapping("/trigger")
+		@HtmxTriggerResponse("eventTriggered")
+		String trigger(HyperTextRequest request) {
+			return String.valueOf(request.isActive());
+		}
+
+		@GetMapping("/mapped")
+		@HtmxMapping
+		String htmx() {
+			return "htmx";
+		}
+
+		@GetMapping("/mapped")
+		String page() {
+			return "page";
+		}
+
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hypertext.webmvc.htmx.HtmxResponse;
+
+/**
+ * Building a response with many triggers and views, which exercises the detail maps and
+ * view de-duplication in the builder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+	@Param({ "1", "10", "100" })
+	private int size;
+
+	@Benchmark
+	public HtmxResponse triggers() {
+		HtmxResponse.Builder builder = HtmxResponse.builder();
+		for (int i = 0; i < this.size; i++) {
+			builder.trigger("event" + i, "detail" + i);
+		}
+		return builder.build();
+	}
+
+	@Benchmark
+	public HtmxResponse views() {
+		HtmxResponse.Builder builder = HtmxResponse.builder();
+		for (int i = 0; i < this.size; i++) {
+			builder.view("view" + i);
+		}
+		return builder.build();
+	}
+
+}
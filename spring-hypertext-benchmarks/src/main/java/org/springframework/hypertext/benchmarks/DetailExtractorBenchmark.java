@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.htmx.HtmxDetailExtractor;
+import org.springframework.hypertext.webmvc.htmx.HtmxTriggerLifecycle;
+import org.springframework.hypertext.webmvc.htmx.HtmxTriggerResponse;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Annotation scanning for handler methods, which happens once per handler method in the
+ * interceptor but is worth tracking because it is all reflection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetailExtractorBenchmark {
+
+	private final HtmxDetailExtractor extractor = new HtmxDetailExtractor();
+
+	private Method plain;
+
+	private Method annotated;
+
+	@Setup
+	public void setup() {
+		this.plain = ReflectionUtils.findMethod(getClass(), "plainHandler");
+		this.annotated = ReflectionUtils.findMethod(getClass(), "annotatedHandler");
+	}
+
+	@Benchmark
+	public Map<String, HyperTextDetail> plain() {
+		return this.extractor.getDetails(this.plain);
+	}
+
+	@Benchmark
+	public Map<String, HyperTextDetail> annotated() {
+		return this.extractor.getDetails(this.annotated);
+	}
+
+	public void plainHandler() {
+	}
+
+	@HtmxTriggerResponse({ "event1", "event2" })
+	@HtmxTriggerResponse(value = "settled", lifecycle = HtmxTriggerLifecycle.SETTLE)
+	@HtmxTriggerResponse(value = "swapped", lifecycle = HtmxTriggerLifecycle.SWAP)
+	public void annotatedHandler() {
+	}
+
+}
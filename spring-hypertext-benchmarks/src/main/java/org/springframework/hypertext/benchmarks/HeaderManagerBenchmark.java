@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hypertext.webmvc.HyperTextDetailHeaderManager;
+import org.springframework.hypertext.webmvc.htmx.HtmxResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serialization of response details into headers. The "shared" benchmark adds the
+ * headers of the same response every time (so cached header values can be reused), and
+ * "fresh" builds a new response every time, like a controller would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderManagerBenchmark {
+
+	@Param({ "1", "10" })
+	private int triggers;
+
+	private final HyperTextDetailHeaderManager manager = new HyperTextDetailHeaderManager(new ObjectMapper());
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private HtmxResponse shared;
+
+	@Setup
+	public void setup() {
+		this.shared = response();
+	}
+
+	@Benchmark
+	public MockHttpServletResponse shared() {
+		this.manager.addHeaders(this.response, this.shared.getDetails());
+		return this.response;
+	}
+
+	@Benchmark
+	public MockHttpServletResponse fresh() {
+		this.manager.addHeaders(this.response, response().getDetails());
+		return this.response;
+	}
+
+	private HtmxResponse response() {
+		HtmxResponse.Builder builder = HtmxResponse.builder();
+		for (int i = 0; i < this.triggers; i++) {
+			builder.trigger("event" + i).triggerAfterSettle("settled" + i, "detail" + i);
+		}
+		return builder.build();
+	}
+
+}
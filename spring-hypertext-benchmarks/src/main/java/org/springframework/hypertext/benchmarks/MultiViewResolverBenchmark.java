@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.benchmarks;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hypertext.webmvc.MultiViewResolver;
+import org.springframework.web.servlet.View;
+
+/**
+ * Resolving comma-separated view names, with a delegate that is as cheap as possible so
+ * that only the overhead of {@link MultiViewResolver} is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiViewResolverBenchmark {
+
+	@Param({ "1", "3", "10" })
+	private int views;
+
+	private final View view = (model, request, response) -> {
+	};
+
+	private final MultiViewResolver resolver = new MultiViewResolver((name, locale) -> this.view);
+
+	private String viewName;
+
+	@Setup
+	public void setup() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < this.views; i++) {
+			if (i > 0) {
+				builder.append(",");
+			}
+			builder.append("fragments :: view").append(i);
+		}
+		this.viewName = builder.toString();
+	}
+
+	@Benchmark
+	public View resolve() throws Exception {
+		return this.resolver.resolveViewName(this.viewName, Locale.ENGLISH);
+	}
+
+}
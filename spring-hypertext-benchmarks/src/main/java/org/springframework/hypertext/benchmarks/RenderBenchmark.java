@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.benchmarks;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.hypertext.webmvc.HyperTextResponse;
+import org.springframework.hypertext.webmvc.HyperTextResponseHandlerMethodReturnValueHandler;
+import org.springframework.hypertext.webmvc.MultiViewResolver;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Rendering several views into one response, through the return value handler for
+ * {@link HyperTextResponse} and through a comma-separated view name. The views write a
+ * small fixed fragment, so the numbers are dominated by the buffering and copying of the
+ * response body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+	@Param({ "1", "5" })
+	private int views;
+
+	@Param({ "false", "true" })
+	private boolean streaming;
+
+	private final View view = (model, request, response) -> {
+		response.setContentType("text/html;charset=UTF-8");
+		response.getWriter().write("<div id=\"fragment\"><p>" + model.get("name") + "</p></div>");
+	};
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+	private final Map<String, Object> model = Map.of("name", "World");
+
+	private final MethodParameter returnType = new MethodParameter(
+			ReflectionUtils.findMethod(RenderBenchmark.class, "handle"), -1);
+
+	private HyperTextResponseHandlerMethodReturnValueHandler handler;
+
+	private View multi;
+
+	private HyperTextResponse response;
+
+	@Setup
+	public void setup() throws Exception {
+		this.handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> this.view,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		this.handler.setStreaming(this.streaming);
+		MultiViewResolver resolver = new MultiViewResolver((name, locale) -> this.view);
+		resolver.setStreaming(this.streaming);
+		HyperTextResponse.Builder<?> builder = HyperTextResponse.builder();
+		StringBuilder names = new StringBuilder();
+		for (int i = 0; i < this.views; i++) {
+			builder.view("view" + i);
+			names.append(i > 0 ? "," : "").append("view").append(i);
+		}
+		this.response = builder.build();
+		this.multi = resolver.resolveViewName(names.toString(), Locale.ENGLISH);
+	}
+
+	@Benchmark
+	public MockHttpServletResponse hyperTextResponse() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ModelAndViewContainer container = new ModelAndViewContainer();
+		this.handler.handleReturnValue(this.response, this.returnType, container,
+				new ServletWebRequest(this.request, response));
+		((View) container.getView()).render(this.model, this.request, response);
+		return response;
+	}
+
+	@Benchmark
+	public MockHttpServletResponse multiView() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.multi.render(this.model, this.request, response);
+		return response;
+	}
+
+	public HyperTextResponse handle() {
+		return null;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.hypertext.webmvc.HyperTextRequest;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+public class HyperTextRequestHandlerMethodArgumentResolver implements HandlerMethodArgumentResolver {
+
+	private final String[] headerNames;
+
+	public HyperTextRequestHandlerMethodArgumentResolver() {
+		this("Hx-Request", "X-Up-Version", "X-Turbo-Request-Id");
+	}
+
+	public HyperTextRequestHandlerMethodArgumentResolver(String ...headerNames) {
+		this.headerNames = headerNames;
+	}
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return parameter.getParameterType().equals(HyperTextRequest.class);
+	}
+
+	@Override
+	public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+			ServerWebExchange exchange) {
+		return Mono.just(exchange.getAttributes().computeIfAbsent(HyperTextRequest.class.getName(),
+				name -> createHyperTextRequest(exchange.getRequest().getHeaders())));
+	}
+
+	protected HyperTextRequest createHyperTextRequest(HttpHeaders headers) {
+		HyperTextRequest result = HyperTextRequest.from(headers);
+		return result.hasAny(headerNames) ? result : HyperTextRequest.empty();
+	}
+
+}
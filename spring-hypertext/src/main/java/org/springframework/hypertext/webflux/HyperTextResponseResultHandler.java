@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.hypertext.webmvc.HyperTextDetailHeaderManager;
+import org.springframework.hypertext.webmvc.HyperTextHeader;
+import org.springframework.hypertext.webmvc.HyperTextModelAndView;
+import org.springframework.hypertext.webmvc.HyperTextResponse;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.HandlerResultHandler;
+import org.springframework.web.reactive.result.view.View;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link HandlerResultHandler} for {@link HyperTextResponse} (or a single-valued
+ * reactive type, like {@link Mono}, wrapping one). The headers are added to the response
+ * and then the views are resolved by name and rendered in order into the same response
+ * body. Views in the response must be given by name because the {@link ModelAndView}
+ * instances in a {@link HyperTextResponse} can only carry Spring MVC {@code View}
+ * instances. Views that are wrapped in markup of their own (Turbo Stream actions and
+ * htmx out of band swaps) are only supported in Spring MVC, and a response with any of
+ * them fails before anything is written.
+ */
+public class HyperTextResponseResultHandler implements HandlerResultHandler, Ordered {
+
+	private final Supplier<List<ViewResolver>> views;
+	private final HyperTextDetailHeaderManager headerManager;
+	private final ReactiveAdapterRegistry adapters = ReactiveAdapterRegistry.getSharedInstance();
+	private boolean streaming;
+	private int order = 50;
+
+	public HyperTextResponseResultHandler(List<ViewResolver> views, ObjectMapper objectMapper) {
+		this(() -> views, objectMapper);
+	}
+
+	/**
+	 * Create a handler that looks up the view resolvers the first time a response is
+	 * rendered, e.g. because they are only available once the application context has
+	 * been refreshed.
+	 *
+	 * @param views        a supplier for the view resolvers
+	 * @param objectMapper the object mapper for header values
+	 */
+	public HyperTextResponseResultHandler(Supplier<List<ViewResolver>> views, ObjectMapper objectMapper) {
+		this.views = SingletonSupplier.of(views);
+		this.headerManager = new HyperTextDetailHeaderManager(objectMapper);
+	}
+
+	/**
+	 * Flush the body of each view to the client as soon as it has been written, instead
+	 * of sending them all as a single stream of buffers. Responses that are marked as
+	 * buffered are never flushed between views. Default is {@code false}.
+	 *
+	 * @param streaming the flag to set
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set the order of this handler. Default is 50, which is after the handlers for
+	 * {@code ResponseEntity} and {@code @ResponseBody} but before the default view
+	 * resolution handler (which would otherwise accept any object as a model attribute).
+	 *
+	 * @param order the order to set
+	 */
+	public void setOrder(int order) {
+		this.order = order;
+	}
+
+	@Override
+	public int getOrder() {
+		return this.order;
+	}
+
+	@Override
+	public boolean supports(HandlerResult result) {
+		ResolvableType type = result.getReturnType();
+		ReactiveAdapter adapter = this.adapters.getAdapter(type.toClass());
+		if (adapter != null) {
+			if (adapter.isMultiValue()) {
+				return false;
+			}
+			type = type.getGeneric();
+		}
+		return HyperTextResponse.class.isAssignableFrom(type.toClass());
+	}
+
+	@Override
+	public Mono<Void> handleResult(ServerWebExchange exchange, HandlerResult result) {
+		Object value = result.getReturnValue();
+		ReactiveAdapter adapter = this.adapters.getAdapter(result.getReturnType().toClass());
+		Mono<?> response = adapter != null && value != null ? Mono.from(adapter.toPublisher(value))
+				: Mono.justOrEmpty(value);
+		return response.cast(HyperTextResponse.class)
+				.flatMap(hypertext -> render(hypertext, result.getModel().asMap(), exchange));
+	}
+
+	private Mono<Void> render(HyperTextResponse response, Map<String, Object> model, ServerWebExchange exchange) {
+		for (ModelAndView view : response.getViews()) {
+			if (view instanceof HyperTextModelAndView wrapped && (wrapped.getPrefix() != null
+					|| wrapped.getSuffix() != null || wrapped.getDecorator() != null)) {
+				return Mono.error(new IllegalStateException(
+						"Wrapped views (e.g. Turbo Stream actions) are only supported in Spring MVC: " + view));
+			}
+			if (view.getViewName() == null) {
+				return Mono.error(new IllegalStateException(
+						"Views in a reactive HyperTextResponse must be given by name: " + view));
+			}
+		}
+		MediaType contentType = response.getContentType() != null
+				? MediaType.parseMediaType(response.getContentType()) : null;
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		for (HyperTextHeader header : this.headerManager.getHeaders(response.getDetails())) {
+			headers.set(header.getName(), header.getValue());
+		}
+		if (contentType != null) {
+			headers.setContentType(contentType);
+		}
+		MultiViewServerHttpResponse body = new MultiViewServerHttpResponse(exchange.getResponse(),
+				this.streaming && !response.isBuffered());
+		ServerWebExchange target = exchange.mutate().response(body).build();
+		Locale locale = exchange.getLocaleContext().getLocale();
+		Locale resolved = locale != null ? locale : Locale.getDefault();
+		return Flux.fromIterable(response.getViews())
+				.concatMap(view -> render(view, model, resolved, contentType, target))
+				.then(Mono.defer(body::commit));
+	}
+
+	private Mono<Void> render(ModelAndView modelAndView, Map<String, Object> model, Locale locale,
+			MediaType contentType, ServerWebExchange exchange) {
+		Map<String, Object> merged = new HashMap<>(model);
+		merged.putAll(modelAndView.getModel());
+		return resolve(modelAndView.getViewName(), locale).flatMap(
+				view -> view.render(merged, contentType != null ? contentType : contentType(view), exchange));
+	}
+
+	private Mono<View> resolve(String viewName, Locale locale) {
+		return Flux.fromIterable(this.views.get())
+				.concatMap(resolver -> resolver.resolveViewName(viewName, locale))
+				.next()
+				.switchIfEmpty(Mono.error(
+						() -> new IllegalStateException("Could not resolve view with name '" + viewName + "'")));
+	}
+
+	private MediaType contentType(View view) {
+		List<MediaType> types = view.getSupportedMediaTypes();
+		return types.isEmpty() ? null : types.get(0);
+	}
+
+}
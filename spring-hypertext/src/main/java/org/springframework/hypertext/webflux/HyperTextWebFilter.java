@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.hypertext.webmvc.HeaderNameExtractor;
+import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.HyperTextDetailExtractor;
+import org.springframework.hypertext.webmvc.HyperTextDetailHeaderManager;
+import org.springframework.hypertext.webmvc.HyperTextHeader;
+import org.springframework.hypertext.webmvc.HyperTextVaryHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The reactive equivalent of the Spring MVC {@code HyperTextHandlerInterceptor}. Adds
+ * the Vary header for hypermedia requests, and the headers declared by annotations on
+ * the handler method. The handler is only known once it has been mapped, so the
+ * annotation headers are added just before the response is committed, unless the
+ * handler already set a header with the same name.
+ */
+public class HyperTextWebFilter implements WebFilter {
+
+	private final HyperTextVaryHeaders varyHeaders;
+	private final HyperTextDetailExtractor detailExtractor;
+	private final HyperTextDetailHeaderManager headerManager;
+	private final Map<Method, List<HyperTextHeader>> headers = new ConcurrentHashMap<>();
+
+	public HyperTextWebFilter(HeaderNameExtractor headerExtractor, HyperTextDetailExtractor detailExtractor,
+			ObjectMapper objectMapper) {
+		this.varyHeaders = headerExtractor instanceof HyperTextVaryHeaders vary ? vary
+				: new HyperTextVaryHeaders(List.of(headerExtractor));
+		this.detailExtractor = detailExtractor;
+		this.headerManager = new HyperTextDetailHeaderManager(objectMapper);
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpResponse response = exchange.getResponse();
+		setVary(exchange.getRequest().getHeaders(), response.getHeaders());
+		response.beforeCommit(() -> {
+			if (exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+				setHeaders(handler.getMethod(), response.getHeaders());
+			}
+			return Mono.empty();
+		});
+		return chain.filter(exchange);
+	}
+
+	private void setVary(HttpHeaders request, HttpHeaders response) {
+		String vary = this.varyHeaders.getVary(request);
+		if (vary != null) {
+			response.add(HttpHeaders.VARY, vary);
+		}
+	}
+
+	private void setHeaders(Method method, HttpHeaders response) {
+		for (HyperTextHeader header : this.headers.computeIfAbsent(method, this::createHeaders)) {
+			if (!response.containsKey(header.getName())) {
+				response.set(header.getName(), header.getValue());
+			}
+		}
+	}
+
+	private List<HyperTextHeader> createHeaders(Method method) {
+		Map<String, HyperTextDetail> details = this.detailExtractor.getDetails(method);
+		return this.headerManager.getHeaders(details);
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.hypertext.webmvc.HeaderNameExtractor;
+import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.HyperTextDetailExtractor;
+import org.springframework.hypertext.webmvc.HyperTextVaryHeaders;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.reactive.result.view.ViewResolutionResultHandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Configuration for hypermedia support in a reactive (WebFlux) application. Views are
+ * resolved with the same view resolvers as the rest of the application, i.e. the ones
+ * used by the default {@link ViewResolutionResultHandler}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class HyperTextWebFluxConfiguration implements WebFluxConfigurer, EnvironmentAware {
+
+	private Environment environment;
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Override
+	public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+		configurer.addCustomResolver(new HyperTextRequestHandlerMethodArgumentResolver());
+	}
+
+	@Bean
+	public HyperTextResponseResultHandler hyperTextResponseResultHandler(
+			ObjectProvider<ViewResolutionResultHandler> views, ObjectMapper objectMapper) {
+		HyperTextResponseResultHandler handler = new HyperTextResponseResultHandler(
+				() -> views.getObject().getViewResolvers(), objectMapper);
+		handler.setStreaming(this.environment.getProperty("hypertext.streaming", Boolean.class, false));
+		return handler;
+	}
+
+	@Bean
+	public HyperTextWebFilter hyperTextWebFilter(ObjectProvider<HyperTextDetailExtractor> details,
+			ObjectProvider<HeaderNameExtractor> extractors, ObjectMapper objectMapper) {
+		return new HyperTextWebFilter(new HyperTextVaryHeaders(extractors),
+				new CompositeHyperTextDetailExtractor(details), objectMapper);
+	}
+
+	static class CompositeHyperTextDetailExtractor implements HyperTextDetailExtractor {
+
+		private final ObjectProvider<HyperTextDetailExtractor> details;
+
+		CompositeHyperTextDetailExtractor(ObjectProvider<HyperTextDetailExtractor> details) {
+			this.details = details;
+		}
+
+		@Override
+		public Map<String, HyperTextDetail> getDetails(Method method) {
+			Map<String, HyperTextDetail> result = new HashMap<>();
+			for (HyperTextDetailExtractor detail : this.details) {
+				result.putAll(detail.getDetails(method));
+			}
+			return result;
+		}
+
+	}
+
+}
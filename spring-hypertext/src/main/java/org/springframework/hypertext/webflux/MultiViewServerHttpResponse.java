@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A response that collects the bodies written by several views instead of writing them,
+ * so they can be sent to the client together as one response. Reactive views can only
+ * write once to a response, so each of them gets this wrapper, and {@link #commit()}
+ * writes all the bodies in order to the real response.
+ */
+class MultiViewServerHttpResponse extends ServerHttpResponseDecorator {
+
+	private final List<Publisher<? extends DataBuffer>> bodies = new ArrayList<>();
+
+	private final boolean streaming;
+
+	MultiViewServerHttpResponse(ServerHttpResponse delegate, boolean streaming) {
+		super(delegate);
+		this.streaming = streaming;
+	}
+
+	@Override
+	public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+		this.bodies.add(body);
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+		this.bodies.add(Flux.from(body).concatMap(Flux::from));
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Void> setComplete() {
+		return Mono.empty();
+	}
+
+	Mono<Void> commit() {
+		if (this.bodies.isEmpty()) {
+			return getDelegate().setComplete();
+		}
+		if (this.streaming) {
+			return getDelegate().writeAndFlushWith(Flux.fromIterable(this.bodies));
+		}
+		return getDelegate().writeWith(Flux.concat(this.bodies));
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * A standalone request for rendering views outside of the request of a user (e.g. to
+ * broadcast the output to other clients). It only has a locale and its own attributes:
+ * no headers, parameters, cookies, principal or session, so nothing that belongs to a
+ * user can end up in the output. Views that need a session fail instead.
+ */
+class BroadcastRequest extends HttpServletRequestWrapper {
+
+	private static final HttpServletRequest EMPTY = (HttpServletRequest) Proxy.newProxyInstance(
+			BroadcastRequest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class },
+			(proxy, method, args) -> switch (method.getName()) {
+				case "equals" -> proxy == args[0];
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "toString" -> "EmptyRequest";
+				default -> empty(method.getReturnType());
+			});
+
+	private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+	private final Locale locale;
+
+	private final ServletContext servletContext;
+
+	BroadcastRequest(Locale locale, ServletContext servletContext) {
+		super(EMPTY);
+		this.locale = locale;
+		this.servletContext = servletContext;
+	}
+
+	/**
+	 * The value of anything the wrapper does not override: nothing (null, false, -1 or
+	 * an empty collection).
+	 */
+	private static Object empty(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == int.class) {
+			return -1;
+		}
+		if (type == long.class) {
+			return -1L;
+		}
+		if (type == Enumeration.class) {
+			return Collections.emptyEnumeration();
+		}
+		if (type == Map.class) {
+			return Map.of();
+		}
+		if (type == Collection.class) {
+			return List.of();
+		}
+		return null;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return this.attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(List.copyOf(this.attributes.keySet()));
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (value == null) {
+			removeAttribute(name);
+			return;
+		}
+		this.attributes.put(name, value);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		this.attributes.remove(name);
+	}
+
+	@Override
+	public Locale getLocale() {
+		return this.locale;
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(List.of(this.locale));
+	}
+
+	@Override
+	public ServletContext getServletContext() {
+		if (this.servletContext == null) {
+			throw new IllegalStateException("No ServletContext available to render a broadcast");
+		}
+		return this.servletContext;
+	}
+
+	@Override
+	public String getContextPath() {
+		return this.servletContext != null ? this.servletContext.getContextPath() : "";
+	}
+
+	@Override
+	public HttpSession getSession(boolean create) {
+		if (create) {
+			throw new IllegalStateException("A view that is rendered for a broadcast can not use the session");
+		}
+		return null;
+	}
+
+	@Override
+	public HttpSession getSession() {
+		return getSession(true);
+	}
+
+	@Override
+	public String changeSessionId() {
+		throw new IllegalStateException("A broadcast has no session");
+	}
+
+	@Override
+	public String getMethod() {
+		return "GET";
+	}
+
+	@Override
+	public String getRequestURI() {
+		return getContextPath() + "/";
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		return new StringBuffer(getRequestURI());
+	}
+
+	@Override
+	public String getServletPath() {
+		return "";
+	}
+
+	@Override
+	public String getProtocol() {
+		return "HTTP/1.1";
+	}
+
+	@Override
+	public String getScheme() {
+		return "http";
+	}
+
+	@Override
+	public String getServerName() {
+		return "localhost";
+	}
+
+	@Override
+	public int getServerPort() {
+		return 80;
+	}
+
+	@Override
+	public DispatcherType getDispatcherType() {
+		return DispatcherType.REQUEST;
+	}
+
+	@Override
+	public String getRequestId() {
+		return "";
+	}
+
+	@Override
+	public String getProtocolRequestId() {
+		return "";
+	}
+
+}
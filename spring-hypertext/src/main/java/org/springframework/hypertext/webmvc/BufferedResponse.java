@@ -0,0 +1,289 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * A standalone response that keeps everything written to it in memory, for rendering
+ * views outside of the response to a request (e.g. to broadcast the output to other
+ * clients). Headers and status are recorded but never sent anywhere. Text is encoded
+ * with the charset of the content type (UTF-8 if it has none).
+ */
+class BufferedResponse implements HttpServletResponse {
+
+	private final FastByteArrayOutputStream content = new FastByteArrayOutputStream(1024);
+
+	private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+
+	private final ServletOutputStream output = new ServletOutputStream() {
+
+		@Override
+		public void write(int b) throws IOException {
+			BufferedResponse.this.content.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			BufferedResponse.this.content.write(b, off, len);
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener listener) {
+			// Always ready, so there is nothing to notify
+		}
+
+	};
+
+	private PrintWriter writer;
+
+	private String contentType;
+
+	private Charset charset = StandardCharsets.UTF_8;
+
+	private Locale locale = Locale.getDefault();
+
+	private int status = SC_OK;
+
+	/**
+	 * @return the bytes written so far
+	 */
+	byte[] getContentAsByteArray() {
+		flushWriter();
+		return this.content.toByteArray();
+	}
+
+	int getContentSize() {
+		flushWriter();
+		return this.content.size();
+	}
+
+	private void flushWriter() {
+		if (this.writer != null) {
+			this.writer.flush();
+		}
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return this.charset.name();
+	}
+
+	@Override
+	public void setCharacterEncoding(String charset) {
+		if (charset != null && this.writer == null) {
+			this.charset = Charset.forName(charset);
+		}
+	}
+
+	@Override
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	@Override
+	public void setContentType(String type) {
+		this.contentType = type;
+		if (type != null) {
+			Charset charset = MediaType.parseMediaType(type).getCharset();
+			if (charset != null) {
+				setCharacterEncoding(charset.name());
+			}
+		}
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		return this.output;
+	}
+
+	@Override
+	public PrintWriter getWriter() {
+		if (this.writer == null) {
+			this.writer = new PrintWriter(new OutputStreamWriter(this.output, this.charset));
+		}
+		return this.writer;
+	}
+
+	@Override
+	public void setContentLength(int len) {
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+	}
+
+	@Override
+	public void setBufferSize(int size) {
+	}
+
+	@Override
+	public int getBufferSize() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public void flushBuffer() {
+		flushWriter();
+	}
+
+	@Override
+	public void resetBuffer() {
+		flushWriter();
+		this.content.reset();
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return false;
+	}
+
+	@Override
+	public void reset() {
+		resetBuffer();
+		this.headers.clear();
+		this.contentType = null;
+		this.status = SC_OK;
+	}
+
+	@Override
+	public void setLocale(Locale locale) {
+		this.locale = locale;
+	}
+
+	@Override
+	public Locale getLocale() {
+		return this.locale;
+	}
+
+	@Override
+	public void addCookie(Cookie cookie) {
+	}
+
+	@Override
+	public boolean containsHeader(String name) {
+		return this.headers.containsKey(name);
+	}
+
+	@Override
+	public String encodeURL(String url) {
+		return url;
+	}
+
+	@Override
+	public String encodeRedirectURL(String url) {
+		return url;
+	}
+
+	@Override
+	public void sendError(int sc, String msg) {
+		this.status = sc;
+	}
+
+	@Override
+	public void sendError(int sc) {
+		this.status = sc;
+	}
+
+	@Override
+	public void sendRedirect(String location) {
+		this.status = SC_FOUND;
+		setHeader("Location", location);
+	}
+
+	@Override
+	public void setDateHeader(String name, long date) {
+		setHeader(name, String.valueOf(date));
+	}
+
+	@Override
+	public void addDateHeader(String name, long date) {
+		addHeader(name, String.valueOf(date));
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		List<String> values = new ArrayList<>();
+		values.add(value);
+		this.headers.put(name, values);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		this.headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		setHeader(name, String.valueOf(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		addHeader(name, String.valueOf(value));
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		this.status = sc;
+	}
+
+	@Override
+	public int getStatus() {
+		return this.status;
+	}
+
+	@Override
+	public String getHeader(String name) {
+		List<String> values = this.headers.get(name);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		List<String> values = this.headers.get(name);
+		return values == null ? List.of() : List.copyOf(values);
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return List.copyOf(this.headers.keySet());
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import org.springframework.hypertext.webmvc.HyperTextRenderObservationDocumentation.HighCardinalityKeyNames;
+import org.springframework.hypertext.webmvc.HyperTextRenderObservationDocumentation.LowCardinalityKeyNames;
+
+import io.micrometer.common.KeyValues;
+
+/**
+ * Default {@link HyperTextRenderObservationConvention}. The observations are named
+ * "hypertext.render" and tagged with the view name and the hypermedia library, so the
+ * timers can be broken down per template.
+ */
+public class DefaultHyperTextRenderObservationConvention implements HyperTextRenderObservationConvention {
+
+	private static final String DEFAULT_NAME = "hypertext.render";
+
+	private final String name;
+
+	public DefaultHyperTextRenderObservationConvention() {
+		this(DEFAULT_NAME);
+	}
+
+	public DefaultHyperTextRenderObservationConvention(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public String getContextualName(HyperTextRenderObservationContext context) {
+		return "render " + context.getViewName();
+	}
+
+	@Override
+	public KeyValues getLowCardinalityKeyValues(HyperTextRenderObservationContext context) {
+		return KeyValues.of(LowCardinalityKeyNames.VIEW.withValue(context.getViewName()),
+				LowCardinalityKeyNames.LIBRARY.withValue(context.getLibrary()),
+				LowCardinalityKeyNames.EXCEPTION.withValue(
+						context.getError() != null ? context.getError().getClass().getSimpleName() : "none"));
+	}
+
+	@Override
+	public KeyValues getHighCardinalityKeyValues(HyperTextRenderObservationContext context) {
+		return KeyValues.of(HighCardinalityKeyNames.BYTES.withValue(String.valueOf(context.getBytes())));
+	}
+
+}
@@ -15,12 +15,63 @@
  */
 package org.springframework.hypertext.webmvc;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
+import org.springframework.http.HttpHeaders;
+
 import jakarta.servlet.http.HttpServletRequest;
 
 public interface HeaderNameExtractor {
 
 	Set<String> getHeaders(HttpServletRequest request);
 
+	/**
+	 * Extract the header names from the headers of a reactive request. The default
+	 * implementation returns an empty set, so extractors that are only used with Spring
+	 * MVC do not need to implement it.
+	 *
+	 * @param headers the request headers
+	 * @return the names of the headers that should be added to the Vary response header
+	 */
+	default Set<String> getHeaders(HttpHeaders headers) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * The names of all the headers that this extractor can return. They are collected
+	 * once so that {@link HyperTextVaryHeaders} can compute the Vary header without
+	 * calling {@link #getHeaders(HttpServletRequest)}, but only if the extractor is also
+	 * {@link #isExhaustive() exhaustive}. The default is an empty collection, meaning
+	 * the extractor is called for every request.
+	 *
+	 * @return the candidate header names
+	 */
+	default Collection<String> getCandidateHeaders() {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Whether the extractor returns a {@link #getCandidateHeaders() candidate} header
+	 * name exactly when the request has a header of that name, and nothing else, so that
+	 * it does not need to be called for each request. The default is {@code false}.
+	 *
+	 * @return true if the candidate headers tell the whole story
+	 */
+	default boolean isExhaustive() {
+		return false;
+	}
+
+	/**
+	 * The name of the hypermedia library whose requests are recognized by this
+	 * extractor (e.g. "htmx"), used to tag metrics. The default is {@code null}, meaning
+	 * the extractor does not identify a library.
+	 *
+	 * @return the library name
+	 */
+	default String getLibrary() {
+		return null;
+	}
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of byte arrays in a few fixed size classes, used to buffer rendered views
+ * without allocating (and growing) a new array for every response. A buffer is made
+ * of a chain of arrays that get bigger as it fills up, so nothing is copied when it
+ * grows, and no array is big enough to count as a humongous object for G1. The arrays
+ * are returned to the pool when the buffer has been copied to the response.
+ * <p>
+ * The pool keeps at most a fixed number of arrays per size class, and counts how many
+ * requests for an array it could serve ({@link #getHits()}) and how many needed a new
+ * one ({@link #getMisses()}), e.g. to publish them as metrics.
+ */
+public class HyperTextBufferPool {
+
+	/** Default maximum number of pooled arrays per size class: 16. */
+	public static final int DEFAULT_MAX_BUFFERS = 16;
+
+	private static final int[] SIZE_CLASSES = { 4 * 1024, 16 * 1024, 64 * 1024, 256 * 1024 };
+
+	private final List<BlockingQueue<byte[]>> pools = new ArrayList<>(SIZE_CLASSES.length);
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public HyperTextBufferPool() {
+		this(DEFAULT_MAX_BUFFERS);
+	}
+
+	/**
+	 * @param maxBuffers the maximum number of arrays to keep per size class (0 to
+	 *                   switch pooling off)
+	 */
+	public HyperTextBufferPool(int maxBuffers) {
+		if (maxBuffers > 0) {
+			for (int i = 0; i < SIZE_CLASSES.length; i++) {
+				this.pools.add(new ArrayBlockingQueue<>(maxBuffers));
+			}
+		}
+	}
+
+	/**
+	 * The size of the array for a position in a chain of buffers: each array is bigger
+	 * than the one before until the largest size class is reached.
+	 *
+	 * @param index the position in the chain
+	 * @return the size of the array
+	 */
+	static int size(int index) {
+		return SIZE_CLASSES[Math.min(index, SIZE_CLASSES.length - 1)];
+	}
+
+	/**
+	 * Take an array from the pool, or allocate a new one if there is none.
+	 *
+	 * @param pool  the pool to use (may be null for no pooling)
+	 * @param index the position in the chain of buffers
+	 * @return an array of {@link #size(int)} bytes
+	 */
+	static byte[] acquire(HyperTextBufferPool pool, int index) {
+		return pool != null ? pool.acquire(index) : new byte[size(index)];
+	}
+
+	byte[] acquire(int index) {
+		int sizeClass = Math.min(index, SIZE_CLASSES.length - 1);
+		byte[] buffer = this.pools.isEmpty() ? null : this.pools.get(sizeClass).poll();
+		if (buffer != null) {
+			this.hits.incrementAndGet();
+			return buffer;
+		}
+		this.misses.incrementAndGet();
+		return new byte[SIZE_CLASSES[sizeClass]];
+	}
+
+	/**
+	 * Give an array back to the pool. It is dropped if the pool for its size class is
+	 * full.
+	 *
+	 * @param buffer the array
+	 */
+	void release(byte[] buffer) {
+		if (this.pools.isEmpty()) {
+			return;
+		}
+		for (int i = 0; i < SIZE_CLASSES.length; i++) {
+			if (SIZE_CLASSES[i] == buffer.length) {
+				this.pools.get(i).offer(buffer);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of arrays that were taken from the pool
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return the number of arrays that had to be allocated
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * @return the fraction of arrays that were taken from the pool (0 if none were
+	 *         requested yet)
+	 */
+	public double getHitRate() {
+		long hits = this.hits.get();
+		long total = hits + this.misses.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * @return the number of arrays in the pool
+	 */
+	public int getPooledCount() {
+		int count = 0;
+		for (BlockingQueue<byte[]> pool : this.pools) {
+			count += pool.size();
+		}
+		return count;
+	}
+
+}
@@ -16,32 +16,71 @@
 package org.springframework.hypertext.webmvc;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.ViewResolver;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.observation.ObservationRegistry;
 
 @Configuration(proxyBeanMethods = false)
-public class HyperTextConfiguration implements BeanPostProcessor {
+public class HyperTextConfiguration implements BeanPostProcessor, EnvironmentAware, BeanFactoryAware {
+
+	private static final String APPLICATION_TASK_EXECUTOR_BEAN_NAME = "applicationTaskExecutor";
+
+	private Environment environment;
+
+	private BeanFactory beanFactory;
+
+	private HyperTextRenderObserver renderObserver;
+
+	private HyperTextFragmentCache fragmentCache;
+
+	private HyperTextBufferPool bufferPool;
+
+	private Executor taskExecutor;
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
 
 	@Override
 	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
 		if ("viewResolver".equals(beanName)) {
-			return new MultiViewResolver((ViewResolver) bean);
+			MultiViewResolver resolver = new MultiViewResolver((ViewResolver) bean);
+			resolver.setStreaming(isStreaming());
+			resolver.setRenderObserver(renderObserver());
+			resolver.setBufferPool(hyperTextBufferPool());
+			resolver.setCacheLimit(this.environment.getProperty("hypertext.view-cache.limit", Integer.class,
+					MultiViewResolver.DEFAULT_CACHE_LIMIT));
+			return resolver;
 		}
 		return bean;
 	}
@@ -49,15 +88,162 @@ public class HyperTextConfiguration implements BeanPostProcessor {
 	@Bean
 	public HyperTextWebMvcConfiguration hyperTextConfigurer(
 			@Qualifier("viewResolver") ObjectFactory<ViewResolver> resolver,
-			ObjectFactory<LocaleResolver> locales, ObjectMapper objectMapper) {
-		return new HyperTextWebMvcConfiguration(resolver, locales, objectMapper);
+			ObjectFactory<LocaleResolver> locales, ObjectMapper objectMapper,
+			ObjectProvider<HyperTextTargetExtractor> targets, ObjectProvider<HyperTextFragmentCache> cache,
+			ObjectProvider<HyperTextRenderObservationConvention> conventions,
+			ObjectProvider<HyperTextSingleFlight> singleFlight) {
+		HyperTextWebMvcConfiguration configurer = new HyperTextWebMvcConfiguration(resolver, locales, objectMapper);
+		configurer.setStreaming(isStreaming());
+		configurer.setFragmentSelector(responseFragmentSelector(targets));
+		configurer.setFragmentCache(cache.getIfAvailable(this::fragmentCache));
+		configurer.setSingleFlight(singleFlight.getIfAvailable());
+		configurer.setBufferPool(hyperTextBufferPool());
+		HyperTextRenderObserver observer = renderObserver();
+		conventions.ifAvailable(observer::setObservationConvention);
+		configurer.setRenderObserver(observer);
+		configurer.setETag(this.environment.getProperty("hypertext.etag.enabled", Boolean.class, false));
+		configurer.setParallel(this.environment.getProperty("hypertext.parallel.enabled", Boolean.class, false));
+		configurer.setTaskExecutor(task -> taskExecutor().execute(task));
+		return configurer;
+	}
+
+	/**
+	 * Pushes rendered fragments to subscribers as Server-Sent Events, only if
+	 * {@code hypertext.sse.enabled=true}.
+	 */
+	@Bean
+	@Conditional(SseCondition.class)
+	public HyperTextEventBroker hyperTextEventBroker(@Qualifier("viewResolver") ObjectFactory<ViewResolver> resolver,
+			ObjectFactory<LocaleResolver> locales, ObjectProvider<HyperTextFragmentCache> cache) {
+		HyperTextEventBroker broker = new HyperTextEventBroker(resolver, locales);
+		broker.setQueueCapacity(this.environment.getProperty("hypertext.sse.queue-capacity", Integer.class, 16));
+		broker.setOverflowPolicy(this.environment.getProperty("hypertext.sse.overflow-policy",
+				HyperTextEventBroker.OverflowPolicy.class, HyperTextEventBroker.OverflowPolicy.DROP_OLDEST));
+		Duration timeout = this.environment.getProperty("hypertext.sse.timeout", Duration.class);
+		if (timeout != null) {
+			broker.setTimeout(timeout.toMillis());
+		}
+		broker.setFragmentCache(cache.getIfAvailable(this::fragmentCache));
+		broker.setRenderObserver(renderObserver());
+		broker.setBufferPool(hyperTextBufferPool());
+		if (this.beanFactory.containsBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+				|| this.environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+			// Otherwise the broker keeps its own pool, rather than a thread per subscriber
+			broker.setTaskExecutor(task -> taskExecutor().execute(task));
+		}
+		return broker;
+	}
+
+	/**
+	 * Lets concurrent renders of the same shared view (or misses of the same cache
+	 * entry) share the output of the first one.
+	 */
+	@Bean
+	@Conditional(SingleFlightCondition.class)
+	public HyperTextSingleFlight hyperTextSingleFlight() {
+		HyperTextSingleFlight singleFlight = new HyperTextSingleFlight();
+		singleFlight.setMaxWait(this.environment.getProperty("hypertext.single-flight.max-wait", Duration.class,
+				HyperTextSingleFlight.DEFAULT_MAX_WAIT));
+		return singleFlight;
+	}
+
+	/**
+	 * The pool of buffers for rendered output that is not streamed. It is a bean so
+	 * that the hit rate can be published as a metric.
+	 */
+	@Bean
+	public HyperTextBufferPool hyperTextBufferPool() {
+		if (this.bufferPool == null) {
+			this.bufferPool = new HyperTextBufferPool(this.environment.getProperty("hypertext.buffer-pool.max-buffers",
+					Integer.class, HyperTextBufferPool.DEFAULT_MAX_BUFFERS));
+		}
+		return this.bufferPool;
+	}
+
+	private boolean isStreaming() {
+		return this.environment.getProperty("hypertext.streaming", Boolean.class, false);
+	}
+
+	private HyperTextRenderObserver renderObserver() {
+		if (this.renderObserver == null) {
+			ObjectProvider<ObservationRegistry> registry = this.beanFactory.getBeanProvider(ObservationRegistry.class);
+			this.renderObserver = new HyperTextRenderObserver(() -> registry.getIfAvailable(() -> ObservationRegistry.NOOP),
+					this.beanFactory.getBeanProvider(HeaderNameExtractor.class));
+		}
+		return this.renderObserver;
+	}
+
+	/**
+	 * The executor for rendering views in parallel: the application task executor if
+	 * there is one (e.g. from Spring Boot), otherwise a new thread for each view (a
+	 * virtual thread if {@code spring.threads.virtual.enabled=true}).
+	 */
+	private Executor taskExecutor() {
+		if (this.taskExecutor == null) {
+			if (this.beanFactory.containsBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME)) {
+				this.taskExecutor = this.beanFactory.getBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME, Executor.class);
+			}
+			else {
+				SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("hypertext-");
+				executor.setVirtualThreads(
+						this.environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+				this.taskExecutor = executor;
+			}
+		}
+		return this.taskExecutor;
+	}
+
+	private HyperTextFragmentCache fragmentCache() {
+		if (this.fragmentCache != null) {
+			return this.fragmentCache;
+		}
+		HyperTextFragmentCache cache = new HyperTextFragmentCache();
+		cache.setMaxEntries(this.environment.getProperty("hypertext.cache.max-entries", Integer.class,
+				HyperTextFragmentCache.DEFAULT_MAX_ENTRIES));
+		cache.setMaxBytes(this.environment.getProperty("hypertext.cache.max-bytes", Long.class,
+				HyperTextFragmentCache.DEFAULT_MAX_BYTES));
+		cache.setTimeToLive(this.environment.getProperty("hypertext.cache.time-to-live", Duration.class,
+				HyperTextFragmentCache.DEFAULT_TIME_TO_LIVE));
+		cache.setCompression(this.environment.getProperty("hypertext.cache.compression.enabled", Boolean.class, false));
+		this.fragmentCache = cache;
+		return cache;
+	}
+
+	/**
+	 * The fragment selector for the views of a {@link HyperTextResponse}. Unlike a page
+	 * returned from a handler, those are only narrowed down if partial rendering is
+	 * switched on explicitly.
+	 */
+	private HyperTextFragmentSelector responseFragmentSelector(ObjectProvider<HyperTextTargetExtractor> targets) {
+		if (!isPartial()) {
+			return null;
+		}
+		return new HyperTextFragmentSelector(targets);
+	}
+
+	private HyperTextFragmentSelector fragmentSelector(ObjectProvider<HyperTextTargetExtractor> targets) {
+		if (!isPartial()) {
+			return new HyperTextFragmentSelector(
+					() -> targets.stream().filter(HyperTextTargetExtractor::isEnabledByDefault).iterator());
+		}
+		return new HyperTextFragmentSelector(targets);
+	}
+
+	private boolean isPartial() {
+		return this.environment.getProperty("hypertext.partial.enabled", Boolean.class, false);
 	}
 
 	@Bean
 	public HyperTextHandlerInterceptor hyperTextHandlerInterceptor(ObjectProvider<HyperTextDetailExtractor> details,
-			ObjectProvider<HeaderNameExtractor> extractors, ObjectMapper objectMapper) {
-		return new HyperTextHandlerInterceptor(new CompositeHeaderNameExtractor(extractors),
-				new CompositeHyperTextDetailExtractor(details), objectMapper);
+			ObjectProvider<HeaderNameExtractor> extractors, ObjectMapper objectMapper,
+			ObjectProvider<HyperTextTargetExtractor> targets,
+			@Qualifier("viewResolver") ObjectFactory<ViewResolver> resolver) {
+		HyperTextHandlerInterceptor interceptor = new HyperTextHandlerInterceptor(
+				new HyperTextVaryHeaders(extractors), new CompositeHyperTextDetailExtractor(details),
+				objectMapper);
+		interceptor.setFragmentSelector(fragmentSelector(targets));
+		interceptor.setViewResolver(resolver);
+		return interceptor;
 	}
 
 	static class CompositeHyperTextDetailExtractor implements HyperTextDetailExtractor {
@@ -79,22 +265,22 @@ public class HyperTextConfiguration implements BeanPostProcessor {
 
 	}
 
-	static class CompositeHeaderNameExtractor implements HeaderNameExtractor {
-
-		private final ObjectProvider<HeaderNameExtractor> extractors;
+	static class SingleFlightCondition implements Condition {
 
-		CompositeHeaderNameExtractor(ObjectProvider<HeaderNameExtractor> extractors) {
-			this.extractors = extractors;
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return context.getEnvironment().getProperty("hypertext.single-flight.enabled", Boolean.class, false);
 		}
 
+	}
+
+	static class SseCondition implements Condition {
+
 		@Override
-		public Set<String> getHeaders(HttpServletRequest request) {
-			Set<String> headerNames = new HashSet<>();
-			for (HeaderNameExtractor extractor : this.extractors) {
-				headerNames.addAll(extractor.getHeaders(request));
-			}
-			return headerNames;
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return context.getEnvironment().getProperty("hypertext.sse.enabled", Boolean.class, false);
 		}
 
 	}
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Imports the hypermedia configuration for the web stack that the application is
+ * running on: the WebFlux configuration if the application context (or its environment)
+ * is a reactive web one, and {@link HyperTextConfiguration} for Spring MVC otherwise. The
+ * decision is based on the type of the running application, not on the classpath, since
+ * both stacks are often on the classpath together. Spring Boot marks reactive
+ * applications, so outside Spring Boot a reactive application has to import
+ * {@code HyperTextWebFluxConfiguration} itself.
+ */
+public class HyperTextConfigurationSelector implements ImportSelector, ResourceLoaderAware, EnvironmentAware {
+
+	private static final String WEBFLUX_CONFIGURATION = "org.springframework.hypertext.webflux.HyperTextWebFluxConfiguration";
+
+	private static final String REACTIVE_ENVIRONMENT = "org.springframework.boot.web.reactive.context.ConfigurableReactiveWebEnvironment";
+
+	private static final String REACTIVE_CONTEXT = "org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext";
+
+	private ResourceLoader resourceLoader;
+
+	private Environment environment;
+
+	@Override
+	public void setResourceLoader(ResourceLoader resourceLoader) {
+		this.resourceLoader = resourceLoader;
+	}
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Override
+	public String[] selectImports(AnnotationMetadata metadata) {
+		if (isReactive()) {
+			return new String[] { WEBFLUX_CONFIGURATION };
+		}
+		return new String[] { HyperTextConfiguration.class.getName() };
+	}
+
+	private boolean isReactive() {
+		ClassLoader classLoader = this.resourceLoader != null ? this.resourceLoader.getClassLoader() : null;
+		return isInstance(REACTIVE_ENVIRONMENT, this.environment, classLoader)
+				|| isInstance(REACTIVE_CONTEXT, this.resourceLoader, classLoader);
+	}
+
+	private static boolean isInstance(String type, Object instance, ClassLoader classLoader) {
+		return instance != null && ClassUtils.isPresent(type, classLoader)
+				&& ClassUtils.resolveClassName(type, classLoader).isInstance(instance);
+	}
+
+}
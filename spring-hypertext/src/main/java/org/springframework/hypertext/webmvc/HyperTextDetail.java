@@ -15,6 +15,7 @@
  */
 package org.springframework.hypertext.webmvc;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -23,11 +24,18 @@ public class HyperTextDetail {
 	private String value;
 	private Object object;
 	private Map<String, Object> details;
+	private final boolean frozen;
+	private volatile String header;
 
 	private HyperTextDetail(Map<String, Object> details, Object object, String value) {
+		this(details, object, value, false);
+	}
+
+	private HyperTextDetail(Map<String, Object> details, Object object, String value, boolean frozen) {
 		this.details = details;
 		this.object = object;
 		this.value = value;
+		this.frozen = frozen;
 	}
 
 	public static HyperTextDetail of(String value) {
@@ -35,6 +43,9 @@ public class HyperTextDetail {
 	}
 
 	public static HyperTextDetail of(Object object) {
+		if (object instanceof HyperTextDetail) {
+			return (HyperTextDetail) object;
+		}
 		if (object instanceof String) {
 			return new HyperTextDetail(null, null, (String) object);
 		}
@@ -60,11 +71,42 @@ public class HyperTextDetail {
 
 	public Map<String, Object> asMap() {
 		if (this.details == null) {
+			if (this.frozen) {
+				return Collections.emptyMap();
+			}
 			this.details = new LinkedHashMap<>();
 		}
 		return details;
 	}
 
+	/**
+	 * Return an immutable copy of this detail (or this detail if it is already
+	 * frozen). Frozen details can safely be shared between responses and remember
+	 * their rendered header value.
+	 *
+	 * @return a frozen detail with the same content
+	 */
+	public HyperTextDetail freeze() {
+		if (this.frozen) {
+			return this;
+		}
+		Map<String, Object> map = this.details == null ? null
+				: Collections.unmodifiableMap(new LinkedHashMap<>(this.details));
+		return new HyperTextDetail(map, this.object, this.value, true);
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	String getHeader() {
+		return header;
+	}
+
+	void setHeader(String header) {
+		this.header = header;
+	}
+
 	public boolean isString() {
 		return value != null;
 	}
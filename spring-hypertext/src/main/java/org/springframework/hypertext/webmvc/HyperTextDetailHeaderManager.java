@@ -15,12 +15,11 @@
  */
 package org.springframework.hypertext.webmvc;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -36,21 +35,56 @@ public class HyperTextDetailHeaderManager {
 	}
 
 	public void addHeaders(HttpServletResponse response, Map<String, HyperTextDetail> details) {
-		MultiValueMap<String, String> headers = new LinkedMultiValueMap<String, String>();
-		addDetailHeaders(details, headers);
-		addHeaders(headers, response);
+		for (Map.Entry<String, HyperTextDetail> detail : details.entrySet()) {
+			response.setHeader(detail.getKey(), render(detail.getValue()));
+		}
 	}
-	
-	private void addDetailHeaders(Map<String, HyperTextDetail> details, MultiValueMap<String, String> headers) {
-		for (String name : details.keySet()) {
-			headers.add(name, jsonHeaders(details.get(name)));
+
+	/**
+	 * Render the details into their final header values, so that callers can cache
+	 * the result and apply it to many responses.
+	 *
+	 * @param details the details to render
+	 * @return the headers in the order of the details
+	 */
+	public List<HyperTextHeader> getHeaders(Map<String, HyperTextDetail> details) {
+		List<HyperTextHeader> result = new ArrayList<>(details.size());
+		for (Map.Entry<String, HyperTextDetail> detail : details.entrySet()) {
+			result.add(HyperTextHeader.of(detail.getKey(), render(detail.getValue())));
 		}
+		return Collections.unmodifiableList(result);
 	}
 
-	private String jsonHeaders(HyperTextDetail value) {
+	public void setHeaders(HttpServletResponse response, Collection<HyperTextHeader> headers) {
+		for (HyperTextHeader header : headers) {
+			header.apply(response);
+		}
+	}
+
+	/**
+	 * Render a single detail into its header value. The result is remembered by frozen
+	 * details (e.g. those of a built {@link HyperTextResponse}), so a constant response
+	 * is only serialized once however many times it is sent.
+	 *
+	 * @param value the detail
+	 * @return the header value
+	 */
+	public String render(HyperTextDetail value) {
 		if (value == null) {
 			return "";
 		}
+		String header = value.getHeader();
+		if (header != null) {
+			return header;
+		}
+		header = jsonHeaders(value);
+		if (value.isFrozen()) {
+			value.setHeader(header);
+		}
+		return header;
+	}
+
+	private String jsonHeaders(HyperTextDetail value) {
 		if (value.isString()) {
 			return value.asString();
 		}
@@ -59,34 +93,25 @@ public class HyperTextDetailHeaderManager {
 				return objectMapper.writeValueAsString(value.asObject());
 			}
 			Map<String, Object> map = value.asMap();
-			if (map.values().stream().allMatch(v -> v instanceof Map sub && sub.isEmpty())) {
-				return map.keySet().stream().collect(Collectors.joining(","));
-			}
 			if (map.isEmpty()) {
 				return "";
 			}
-			return objectMapper.writeValueAsString(value.asMap());
+			if (isNamesOnly(map)) {
+				return String.join(",", map.keySet());
+			}
+			return objectMapper.writeValueAsString(map);
 		} catch (JsonProcessingException e) {
 			throw new IllegalArgumentException("Unable to serialize " + value.getClass(), e);
 		}
 	}
 
-	private void addHeaders(MultiValueMap<String, String> headers, HttpServletResponse response) {
-		for (String name : headers.keySet()) {
-			addHeader(response, name, headers.get(name));
-		}
-	}
-
-	private void addHeader(HttpServletResponse response, String headerName, List<String> values) {
-		if (values.isEmpty()) {
-			return;
+	private static boolean isNamesOnly(Map<String, Object> map) {
+		for (Object value : map.values()) {
+			if (!(value instanceof Map<?, ?> sub) || !sub.isEmpty()) {
+				return false;
+			}
 		}
-
-		String value = values.stream()
-				.collect(Collectors.joining(","));
-
-		response.setHeader(headerName, value);
-		return;
+		return true;
 	}
 
 }
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.ServletContextAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.ServletContext;
+
+/**
+ * Pushes rendered {@link HyperTextResponse} fragments to many clients as Server-Sent
+ * Events, e.g. for the htmx {@code sse} extension or a Turbo Stream source. A
+ * controller returns the {@link SseEmitter} from {@link #subscribe(String)}, and
+ * {@link #publish(String, String, HyperTextResponse) publishing} to a topic renders the
+ * response once and sends the same bytes to every subscriber of the topic.
+ * <p>
+ * Each subscriber has a bounded queue of events, drained on the
+ * {@link #setTaskExecutor(Executor) task executor}, so a slow client only delays itself
+ * and can only hold on to a fixed number of events. When its queue is full the
+ * {@link OverflowPolicy} decides which event is dropped.
+ * <p>
+ * Since the same output goes to all subscribers it must not depend on who the user is,
+ * so fragments are never rendered with the request of a user (not even the one that
+ * publishes). They are rendered with a request of their own that only has the locale
+ * passed to {@code publish()} (or else the one the {@link LocaleResolver} picks for a
+ * request without headers), and no session, cookies or request attributes. A view that
+ * needs a session fails instead of rendering.
+ */
+public class HyperTextEventBroker implements ServletContextAware, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HyperTextEventBroker.class);
+
+	/**
+	 * What to do with a new event for a subscriber whose queue is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Drop the oldest queued event to make room for the new one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Drop the new event.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Replace a queued event with the same name (only the latest state of a fragment
+		 * matters), otherwise drop the oldest queued event. Events with the same name are
+		 * coalesced even if the queue is not full.
+		 */
+		COALESCE
+
+	}
+
+	private final ObjectFactory<ViewResolver> views;
+	private final ObjectFactory<LocaleResolver> locales;
+	private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+	private Executor executor;
+	private ThreadPoolTaskExecutor defaultExecutor;
+	private int queueCapacity = 16;
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+	private Long timeout;
+	private HyperTextFragmentCache fragmentCache;
+	private HyperTextRenderObserver renderObserver;
+	private HyperTextBufferPool bufferPool;
+	private ServletContext servletContext;
+
+	public HyperTextEventBroker(ObjectFactory<ViewResolver> views, ObjectFactory<LocaleResolver> locales) {
+		this.views = views;
+		this.locales = locales;
+	}
+
+	/**
+	 * Set the executor used to send queued events to subscribers. A task is only
+	 * running for a subscriber while it has events in its queue. Default is a pool of 8
+	 * daemon threads shared by all subscribers (created when the first event is sent and
+	 * shut down with the broker), so a burst of events does not start a thread per
+	 * subscriber.
+	 *
+	 * @param executor the executor to use
+	 */
+	public synchronized void setTaskExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the maximum number of events queued for each subscriber. Default is 16.
+	 *
+	 * @param queueCapacity the capacity to set
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be positive");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the policy for new events when a subscriber's queue is full. Default is
+	 * {@link OverflowPolicy#DROP_OLDEST}.
+	 *
+	 * @param overflowPolicy the policy to set
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the timeout of the emitters in milliseconds. Default is none (the default
+	 * timeout for asynchronous requests applies).
+	 *
+	 * @param timeout the timeout to set
+	 */
+	public void setTimeout(Long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Set a cache for the output of views that are marked as cacheable. Default is none.
+	 *
+	 * @param fragmentCache the cache to use
+	 */
+	public void setFragmentCache(HyperTextFragmentCache fragmentCache) {
+		this.fragmentCache = fragmentCache;
+	}
+
+	/**
+	 * Set an observer that records an observation for each view as it renders. Default
+	 * is none.
+	 *
+	 * @param renderObserver the observer to use
+	 */
+	public void setRenderObserver(HyperTextRenderObserver renderObserver) {
+		this.renderObserver = renderObserver;
+	}
+
+	/**
+	 * Set the pool of buffers that events are rendered into. Default is none (new
+	 * buffers for every event).
+	 *
+	 * @param bufferPool the pool to use
+	 */
+	public void setBufferPool(HyperTextBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	private synchronized Executor executor() {
+		if (this.executor == null) {
+			ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+			executor.setThreadNamePrefix("hypertext-sse-");
+			executor.setCorePoolSize(8);
+			executor.setDaemon(true);
+			executor.initialize();
+			this.defaultExecutor = executor;
+			this.executor = executor;
+		}
+		return this.executor;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (this.defaultExecutor != null) {
+			this.defaultExecutor.shutdown();
+			this.defaultExecutor = null;
+		}
+	}
+
+	@Override
+	public void setServletContext(ServletContext servletContext) {
+		this.servletContext = servletContext;
+	}
+
+	/**
+	 * Subscribe the current request to a topic. Return the emitter from a handler method
+	 * to keep the connection open.
+	 *
+	 * @param topic the topic to subscribe to
+	 * @return an emitter for the events
+	 */
+	public SseEmitter subscribe(String topic) {
+		SseEmitter emitter = new SseEmitter(this.timeout);
+		Subscriber subscriber = new Subscriber(topic, emitter);
+		emitter.onCompletion(subscriber::remove);
+		emitter.onTimeout(subscriber::remove);
+		emitter.onError(error -> subscriber.remove());
+		this.topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+		return emitter;
+	}
+
+	/**
+	 * @param topic the topic
+	 * @return the number of current subscribers to the topic
+	 */
+	public int getSubscriberCount(String topic) {
+		Set<Subscriber> subscribers = this.topics.get(topic);
+		return subscribers == null ? 0 : subscribers.size();
+	}
+
+	/**
+	 * Render a response with an empty model and send it to all subscribers of a topic.
+	 *
+	 * @param topic    the topic
+	 * @param event    the event name (e.g. the name in {@code sse-swap} for htmx), or
+	 *                 null for an unnamed event
+	 * @param response the response to render
+	 * @return the number of subscribers the event was queued for
+	 */
+	public int publish(String topic, String event, HyperTextResponse response) {
+		return publish(topic, event, response, Map.of());
+	}
+
+	/**
+	 * Render a response with the default locale and send it to all subscribers of a
+	 * topic.
+	 *
+	 * @param topic    the topic
+	 * @param event    the event name, or null for an unnamed event
+	 * @param response the response to render
+	 * @param model    the model for the views
+	 * @return the number of subscribers the event was queued for
+	 */
+	public int publish(String topic, String event, HyperTextResponse response, Map<String, ?> model) {
+		return publish(topic, event, response, model, null);
+	}
+
+	/**
+	 * Render a response in the given locale and send it to all subscribers of a topic.
+	 * Nothing is rendered if there are no subscribers.
+	 *
+	 * @param topic    the topic
+	 * @param event    the event name, or null for an unnamed event
+	 * @param response the response to render
+	 * @param model    the model for the views
+	 * @param locale   the locale to render with (may be null for the default)
+	 * @return the number of subscribers the event was queued for
+	 */
+	public int publish(String topic, String event, HyperTextResponse response, Map<String, ?> model,
+			Locale locale) {
+		Set<Subscriber> subscribers = this.topics.get(topic);
+		if (subscribers == null || subscribers.isEmpty()) {
+			return 0;
+		}
+		Frame frame = new Frame(event, frame(event, render(response, model, locale)));
+		int count = 0;
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(frame);
+			count++;
+		}
+		return count;
+	}
+
+	private String render(HyperTextResponse response, Map<String, ?> model, Locale locale) {
+		LocaleResolver locales = locale != null ? new FixedLocaleResolver(locale) : this.locales.getObject();
+		BroadcastRequest request = new BroadcastRequest(locale != null ? locale : Locale.getDefault(),
+				this.servletContext);
+		HyperTextResponseView view = new HyperTextResponseView(response, this.views.getObject(), locales);
+		view.setFragmentCache(this.fragmentCache);
+		view.setRenderObserver(this.renderObserver);
+		view.setBufferPool(this.bufferPool);
+		PooledResponseWrapper buffer = new PooledResponseWrapper(new BufferedResponse(), this.bufferPool);
+		// Hide the request of the publisher (if any) from the views
+		RequestAttributes previousRequest = RequestContextHolder.getRequestAttributes();
+		LocaleContext previousLocale = LocaleContextHolder.getLocaleContext();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, buffer));
+		LocaleContextHolder.setLocaleContext(() -> locales.resolveLocale(request));
+		try {
+			view.render(model, request, buffer);
+			return StreamUtils.copyToString(buffer.getContentInputStream(),
+					Charset.forName(buffer.getCharacterEncoding()));
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Could not render HyperTextResponse for event", ex);
+		}
+		finally {
+			buffer.release();
+			RequestContextHolder.setRequestAttributes(previousRequest);
+			LocaleContextHolder.setLocaleContext(previousLocale);
+		}
+	}
+
+	/**
+	 * Encode the content (decoded with the charset it was rendered in) as a complete
+	 * Server-Sent Event in UTF-8, so it only has to be done once for all subscribers.
+	 */
+	static byte[] frame(String event, String content) {
+		StringBuilder builder = new StringBuilder(content.length() + 64);
+		if (event != null) {
+			builder.append("event:").append(event).append('\n');
+		}
+		for (String line : content.split("\r\n|\r|\n", -1)) {
+			builder.append("data:").append(line).append('\n');
+		}
+		builder.append('\n');
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private class Subscriber {
+
+		private final String topic;
+		private final SseEmitter emitter;
+		private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+		private boolean draining;
+
+		Subscriber(String topic, SseEmitter emitter) {
+			this.topic = topic;
+			this.emitter = emitter;
+		}
+
+		void offer(Frame frame) {
+			boolean start;
+			synchronized (this.queue) {
+				if (!enqueue(frame)) {
+					return;
+				}
+				start = !this.draining;
+				this.draining = true;
+			}
+			if (start) {
+				executor().execute(this::drain);
+			}
+		}
+
+		private boolean enqueue(Frame frame) {
+			OverflowPolicy policy = HyperTextEventBroker.this.overflowPolicy;
+			if (policy == OverflowPolicy.COALESCE && frame.event != null) {
+				Iterator<Frame> queued = this.queue.iterator();
+				while (queued.hasNext()) {
+					if (frame.event.equals(queued.next().event)) {
+						queued.remove();
+						break;
+					}
+				}
+			}
+			if (this.queue.size() >= HyperTextEventBroker.this.queueCapacity) {
+				if (policy == OverflowPolicy.DROP_NEWEST) {
+					return false;
+				}
+				this.queue.poll();
+			}
+			this.queue.add(frame);
+			return true;
+		}
+
+		private void drain() {
+			while (true) {
+				Frame frame;
+				synchronized (this.queue) {
+					frame = this.queue.poll();
+					if (frame == null) {
+						this.draining = false;
+						return;
+					}
+				}
+				try {
+					this.emitter.send(frame.data);
+				}
+				catch (IOException | IllegalStateException ex) {
+					LOGGER.debug("Failed to send event to subscriber of '{}'", this.topic, ex);
+					remove();
+					return;
+				}
+			}
+		}
+
+		void remove() {
+			HyperTextEventBroker.this.topics.computeIfPresent(this.topic, (topic, subscribers) -> {
+				subscribers.remove(this);
+				return subscribers.isEmpty() ? null : subscribers;
+			});
+			synchronized (this.queue) {
+				this.queue.clear();
+			}
+		}
+
+	}
+
+	/**
+	 * An event that is already encoded, with its name for coalescing.
+	 */
+	private static class Frame {
+
+		private final String event;
+		private final Set<DataWithMediaType> data;
+
+		Frame(String event, byte[] content) {
+			this.event = event;
+			this.data = Set.of(new DataWithMediaType(content, MediaType.TEXT_EVENT_STREAM));
+		}
+
+	}
+
+}
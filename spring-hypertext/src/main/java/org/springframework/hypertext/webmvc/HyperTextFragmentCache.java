@@ -0,0 +1,264 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.util.Assert;
+
+/**
+ * A size-bounded cache for the rendered output of views in a
+ * {@link HyperTextResponse}. Entries are evicted least recently used first when the
+ * cache holds too many entries or too many bytes, and expire after a fixed time to
+ * live. Entries can also keep a gzip encoding of the output, so that a response made
+ * of a single cached view can be sent compressed without compressing it again for
+ * every request.
+ *
+ * @see HyperTextModelAndView#cache(String...)
+ */
+public class HyperTextFragmentCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	public static final long DEFAULT_MAX_BYTES = 16 * 1024 * 1024;
+
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+	private final Map<Object, Fragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private long maxBytes = DEFAULT_MAX_BYTES;
+
+	private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+	private boolean compression;
+
+	private Clock clock = Clock.systemUTC();
+
+	private long bytes;
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "Time to live must not be null");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Store a gzip encoding of the output next to the original bytes (only if it is
+	 * smaller). Both count towards the maximum number of bytes. Default is
+	 * {@code false}.
+	 *
+	 * @param compression the flag to set
+	 */
+	public void setCompression(boolean compression) {
+		this.compression = compression;
+	}
+
+	public boolean isCompression() {
+		return this.compression;
+	}
+
+	void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Create a cache key for a view.
+	 *
+	 * @param viewName  the name of the view
+	 * @param locale    the current locale
+	 * @param model     the model the view renders
+	 * @param modelKeys the names of the model attributes the output depends on
+	 * @return the key
+	 */
+	public Object key(String viewName, Locale locale, Map<String, ?> model, String... modelKeys) {
+		List<Object> values = new ArrayList<>(modelKeys.length);
+		for (String name : modelKeys) {
+			values.add(model.get(name));
+		}
+		return new Key(viewName, locale, values);
+	}
+
+	public synchronized Fragment get(Object key) {
+		Fragment fragment = this.fragments.get(key);
+		if (fragment == null) {
+			return null;
+		}
+		if (fragment.expires.isBefore(this.clock.instant())) {
+			remove(key);
+			return null;
+		}
+		return fragment;
+	}
+
+	public Fragment put(Object key, byte[] content, String contentType) {
+		// Compress outside the lock
+		Fragment fragment = new Fragment(content, this.compression ? gzip(content) : null, contentType,
+				this.clock.instant().plus(this.timeToLive));
+		if (fragment.size() > this.maxBytes) {
+			return fragment;
+		}
+		synchronized (this) {
+			remove(key);
+			this.fragments.put(key, fragment);
+			this.bytes += fragment.size();
+			Iterator<Fragment> iterator = this.fragments.values().iterator();
+			while (this.fragments.size() > this.maxEntries || this.bytes > this.maxBytes) {
+				this.bytes -= iterator.next().size();
+				iterator.remove();
+			}
+		}
+		return fragment;
+	}
+
+	private static byte[] gzip(byte[] content) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2 + 32);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(content);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.size() < content.length ? bytes.toByteArray() : null;
+	}
+
+	/**
+	 * Remove all the cached output of a view, e.g. when its template has changed.
+	 *
+	 * @param viewName the name of the view
+	 */
+	public synchronized void evict(String viewName) {
+		Iterator<Map.Entry<Object, Fragment>> iterator = this.fragments.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Object, Fragment> entry = iterator.next();
+			if (entry.getKey() instanceof Key key && key.viewName.equals(viewName)) {
+				this.bytes -= entry.getValue().size();
+				iterator.remove();
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		this.fragments.clear();
+		this.bytes = 0;
+	}
+
+	public synchronized int size() {
+		return this.fragments.size();
+	}
+
+	public synchronized long getBytes() {
+		return this.bytes;
+	}
+
+	private void remove(Object key) {
+		Fragment fragment = this.fragments.remove(key);
+		if (fragment != null) {
+			this.bytes -= fragment.size();
+		}
+	}
+
+	/**
+	 * The rendered output of a view.
+	 */
+	public static final class Fragment {
+
+		private final byte[] content;
+		private final byte[] gzipContent;
+		private final String contentType;
+		private final Instant expires;
+
+		private Fragment(byte[] content, byte[] gzipContent, String contentType, Instant expires) {
+			this.content = content;
+			this.gzipContent = gzipContent;
+			this.contentType = contentType;
+			this.expires = expires;
+		}
+
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		/**
+		 * @return the gzip encoding of the content, or null if there is none
+		 */
+		public byte[] getGzipContent() {
+			return this.gzipContent;
+		}
+
+		public String getContentType() {
+			return this.contentType;
+		}
+
+		private long size() {
+			return this.content.length + (this.gzipContent != null ? this.gzipContent.length : 0);
+		}
+
+	}
+
+	private static final class Key {
+
+		private final String viewName;
+		private final Locale locale;
+		private final List<Object> values;
+
+		private Key(String viewName, Locale locale, List<Object> values) {
+			this.viewName = viewName;
+			this.locale = locale;
+			this.values = values;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key other)) {
+				return false;
+			}
+			return this.viewName.equals(other.viewName) && Objects.equals(this.locale, other.locale)
+					&& this.values.equals(other.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.viewName, this.locale, this.values);
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Narrows a full page view name down to the fragment that a hypermedia request
+ * targets, e.g. {@code greet} becomes {@code greet :: #content} for an htmx request
+ * with {@code HX-Target: content}. The result uses the Thymeleaf fragment selector
+ * syntax. View names that already select a fragment, list several views, or redirect
+ * or forward are left alone.
+ */
+public class HyperTextFragmentSelector {
+
+	private static final Pattern SELECTOR = Pattern.compile("[A-Za-z][\\w-]*|([A-Za-z][\\w-]*)?[#.][A-Za-z_][\\w-]*");
+
+	private final Iterable<HyperTextTargetExtractor> extractors;
+
+	public HyperTextFragmentSelector(Iterable<HyperTextTargetExtractor> extractors) {
+		this.extractors = extractors;
+	}
+
+	/**
+	 * Check if a target is a fragment selector that can be used to narrow a view down,
+	 * i.e. an element name, id or class, or an element name with an id or class.
+	 *
+	 * @param target the candidate selector
+	 * @return true if the selector is supported
+	 */
+	public static boolean isSelector(String target) {
+		return target != null && SELECTOR.matcher(target).matches();
+	}
+
+	/**
+	 * @return the names of the request headers that a target can come from
+	 */
+	public Set<String> getHeaderNames() {
+		Set<String> names = new LinkedHashSet<>();
+		for (HyperTextTargetExtractor extractor : this.extractors) {
+			names.add(extractor.getHeaderName());
+		}
+		return names;
+	}
+
+	/**
+	 * Select the targeted fragment of a view.
+	 *
+	 * @param viewName the view name returned by the handler
+	 * @param request  the current request
+	 * @param response the current response, which is marked as varying on the
+	 *                 header that the target came from
+	 * @return the view name to render
+	 */
+	public String select(String viewName, HttpServletRequest request, HttpServletResponse response) {
+		if (!isPage(viewName)) {
+			return viewName;
+		}
+		for (HyperTextTargetExtractor extractor : this.extractors) {
+			String target = extractor.getTarget(request);
+			if (target != null) {
+				response.addHeader("Vary", extractor.getHeaderName());
+				return select(viewName, target);
+			}
+		}
+		return viewName;
+	}
+
+	/**
+	 * Create a view for the targeted fragment of a page. Unlike the plain view name from
+	 * {@link #select(String, HttpServletRequest, HttpServletResponse)} the view only
+	 * renders the content of the target if the client swaps the content, and it renders
+	 * the whole page if the target is not found.
+	 *
+	 * @param viewName the view name returned by the handler
+	 * @param resolver the view resolver for the fragment and the page
+	 * @param request  the current request
+	 * @param response the current response, which is marked as varying on the
+	 *                 header that the target came from
+	 * @return a view for the fragment, or null if the view name should be used as it is
+	 */
+	public View resolve(String viewName, ViewResolver resolver, HttpServletRequest request,
+			HttpServletResponse response) {
+		if (!isPage(viewName)) {
+			return null;
+		}
+		for (HyperTextTargetExtractor extractor : this.extractors) {
+			String target = extractor.getTarget(request);
+			if (target != null) {
+				response.addHeader("Vary", extractor.getHeaderName());
+				return new HyperTextFragmentView(resolver, viewName, select(viewName, target),
+						extractor.isInner() && !target.contains(","));
+			}
+		}
+		return null;
+	}
+
+	private String select(String viewName, String target) {
+		if (!target.contains(",")) {
+			return viewName + " :: " + target;
+		}
+		StringBuilder builder = new StringBuilder();
+		for (String selector : target.split(",")) {
+			if (builder.length() > 0) {
+				builder.append(",");
+			}
+			builder.append(viewName).append(" :: ").append(selector.trim());
+		}
+		return builder.toString();
+	}
+
+	private static boolean isPage(String viewName) {
+		return viewName != null && !viewName.contains("::") && !viewName.contains(",")
+				&& !viewName.startsWith("redirect:") && !viewName.startsWith("forward:");
+	}
+
+}
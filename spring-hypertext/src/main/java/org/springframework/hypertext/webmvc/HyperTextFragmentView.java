@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * A {@link View} for the fragment of a page that a request targets. If the client swaps
+ * the content of the target (like htmx does by default) only the children of the
+ * selected element are rendered. If the selector matches nothing the whole page is
+ * rendered instead of an empty body.
+ */
+class HyperTextFragmentView implements View {
+
+	private final ViewResolver resolver;
+	private final String page;
+	private final String fragment;
+	private final boolean inner;
+
+	HyperTextFragmentView(ViewResolver resolver, String page, String fragment, boolean inner) {
+		this.resolver = resolver;
+		this.page = page;
+		this.fragment = fragment;
+		this.inner = inner;
+	}
+
+	/**
+	 * @return the view name of the selected fragment
+	 */
+	String getViewName() {
+		return this.fragment;
+	}
+
+	/**
+	 * @return a name that is unique for the page, the selector and the kind of swap
+	 */
+	String getName() {
+		return this.inner ? this.fragment + " /inner" : this.fragment;
+	}
+
+	@Override
+	public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		PooledResponseWrapper buffer = new PooledResponseWrapper(response, null);
+		byte[] content;
+		try {
+			resolve(this.fragment, request).render(model, request, buffer);
+			content = buffer.getContentAsByteArray();
+		}
+		finally {
+			buffer.release();
+		}
+		Charset charset = Charset.forName(response.getCharacterEncoding());
+		String markup = new String(content, charset);
+		if (markup.isBlank()) {
+			resolve(this.page, request).render(model, request, response);
+			return;
+		}
+		if (this.inner) {
+			content = inner(markup).getBytes(charset);
+		}
+		response.getOutputStream().write(content);
+	}
+
+	private View resolve(String viewName, HttpServletRequest request) throws Exception {
+		View view = this.resolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+		Assert.notNull(view, "Template '" + viewName + "' could not be resolved");
+		return view;
+	}
+
+	/**
+	 * The content of the first element in the markup, i.e. everything between the end of
+	 * its start tag and the start of its end tag.
+	 */
+	static String inner(String markup) {
+		int start = markup.indexOf('<');
+		if (start < 0) {
+			return markup;
+		}
+		char quote = 0;
+		int end = -1;
+		for (int i = start + 1; i < markup.length() && end < 0; i++) {
+			char c = markup.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			}
+			else if (c == '"' || c == '\'') {
+				quote = c;
+			}
+			else if (c == '>') {
+				end = i;
+			}
+		}
+		int close = markup.lastIndexOf("</");
+		if (end < 0 || markup.charAt(end - 1) == '/' || close <= end) {
+			// A void element (or broken markup) has no content
+			return "";
+		}
+		return markup.substring(end + 1, close);
+	}
+
+}
@@ -16,11 +16,17 @@
 package org.springframework.hypertext.webmvc;
 
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -31,16 +37,43 @@ import jakarta.servlet.http.HttpServletResponse;
 
 public class HyperTextHandlerInterceptor implements HandlerInterceptor, WebMvcConfigurer {
 
-	private final HeaderNameExtractor varyExtractor;
+	private final HyperTextVaryHeaders varyHeaders;
 	private final HyperTextDetailExtractor detailExtractor;
 	private final HyperTextDetailHeaderManager headerManager;
+	private final Map<Method, List<HyperTextHeader>> headers = new ConcurrentHashMap<>();
+	private HyperTextFragmentSelector fragmentSelector;
+	private ObjectFactory<ViewResolver> viewResolver;
 
 	public HyperTextHandlerInterceptor(HeaderNameExtractor headerExtractor, HyperTextDetailExtractor detailExtractor, ObjectMapper objectMapper) {
-		this.varyExtractor = headerExtractor;
+		this.varyHeaders = headerExtractor instanceof HyperTextVaryHeaders vary ? vary
+				: new HyperTextVaryHeaders(List.of(headerExtractor));
 		this.detailExtractor = detailExtractor;
 		this.headerManager = new HyperTextDetailHeaderManager(objectMapper);
 	}
 
+	/**
+	 * Set a selector that narrows full page view names returned by handlers down to the
+	 * fragment targeted by the request. Default is none.
+	 *
+	 * @param fragmentSelector the selector to use
+	 */
+	public void setFragmentSelector(HyperTextFragmentSelector fragmentSelector) {
+		this.fragmentSelector = fragmentSelector;
+	}
+
+	/**
+	 * Set the view resolver for the fragments selected by the
+	 * {@link #setFragmentSelector(HyperTextFragmentSelector) fragment selector}. With a
+	 * resolver only the content of the target is rendered if the client swaps the
+	 * content, and the whole page if the target is not found. Default is none (the view
+	 * name is narrowed down and rendered as it is).
+	 *
+	 * @param viewResolver the view resolver to use
+	 */
+	public void setViewResolver(ObjectFactory<ViewResolver> viewResolver) {
+		this.viewResolver = viewResolver;
+	}
+
 	@Override
 	public void addInterceptors(InterceptorRegistry registry) {
 		registry.addInterceptor(this);
@@ -50,6 +83,11 @@ public class HyperTextHandlerInterceptor implements HandlerInterceptor, WebMvcCo
 	public boolean preHandle(HttpServletRequest request,
 			HttpServletResponse response,
 			Object handler) {
+		if (request.getAttribute(HyperTextIncludeView.INCLUDE_ATTRIBUTE) != null
+				&& !(handler instanceof HandlerMethod handlerMethod && isHyperText(handlerMethod))) {
+			// Fail closed for includes: static resources, functional routes etc. too
+			return false;
+		}
 		if (handler instanceof HandlerMethod) {
 			Method method = ((HandlerMethod) handler).getMethod();
 			setHeaders(method, response);
@@ -58,15 +96,48 @@ public class HyperTextHandlerInterceptor implements HandlerInterceptor, WebMvcCo
 		return true;
 	}
 
+	@Override
+	public void postHandle(HttpServletRequest request,
+			HttpServletResponse response,
+			Object handler,
+			ModelAndView modelAndView) {
+		if (this.fragmentSelector == null || modelAndView == null || modelAndView.getViewName() == null) {
+			return;
+		}
+		if (this.viewResolver == null) {
+			modelAndView.setViewName(this.fragmentSelector.select(modelAndView.getViewName(), request, response));
+			return;
+		}
+		View view = this.fragmentSelector.resolve(modelAndView.getViewName(), this.viewResolver.getObject(), request,
+				response);
+		if (view != null) {
+			modelAndView.setView(view);
+		}
+	}
+
+	/**
+	 * Only hypermedia handlers can be included in another response, so that a batch of
+	 * fragments can not be used to reach arbitrary routes.
+	 */
+	private static boolean isHyperText(HandlerMethod handler) {
+		return AnnotatedElementUtils.hasAnnotation(handler.getMethod(), HyperTextMapping.class)
+				|| AnnotatedElementUtils.hasAnnotation(handler.getBeanType(), HyperTextMapping.class);
+	}
+
 	private void setVary(HttpServletRequest request, HttpServletResponse response) {
-		Set<String> header = this.varyExtractor.getHeaders(request);
-		if (header.size() > 0) {	
-			response.addHeader("Vary", String.join(",", header));
+		String vary = this.varyHeaders.getVary(request);
+		if (vary != null) {
+			response.addHeader("Vary", vary);
 		}
 	}
 
 	private void setHeaders(Method method, HttpServletResponse response) {
-		Map<String, HyperTextDetail> header = this.detailExtractor.getDetails(method);
-		headerManager.addHeaders(response, header);
+		List<HyperTextHeader> header = this.headers.computeIfAbsent(method, this::createHeaders);
+		this.headerManager.setHeaders(response, header);
+	}
+
+	private List<HyperTextHeader> createHeaders(Method method) {
+		Map<String, HyperTextDetail> details = this.detailExtractor.getDetails(method);
+		return this.headerManager.getHeaders(details);
 	}
 }
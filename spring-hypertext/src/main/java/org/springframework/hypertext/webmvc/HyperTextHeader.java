@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.util.Objects;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * An HTTP response header with its final, serialized value. Instances are immutable
+ * so they can be computed once and applied to any number of responses.
+ */
+public final class HyperTextHeader {
+
+	private final String name;
+	private final String value;
+
+	private HyperTextHeader(String name, String value) {
+		this.name = name;
+		this.value = value;
+	}
+
+	public static HyperTextHeader of(String name, String value) {
+		Objects.requireNonNull(name, "Header name must not be null");
+		return new HyperTextHeader(name, value == null ? "" : value);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void apply(HttpServletResponse response) {
+		response.setHeader(name, value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, value);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		HyperTextHeader other = (HyperTextHeader) obj;
+		return name.equals(other.name) && value.equals(other.value);
+	}
+
+	@Override
+	public String toString() {
+		return name + ": " + value;
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.View;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * A {@link View} that renders another route of the same application in place, by
+ * including it through the servlet container (and so through the
+ * {@code DispatcherServlet} again). The included request gets extra headers, e.g. to
+ * make it look like a request from a hypermedia library, and its own
+ * {@link HyperTextRequest}. This lets a single response combine the fragments that a
+ * page would otherwise fetch with many small requests.
+ * <p>
+ * Only handlers with a {@link HyperTextMapping} (or one of the library specific
+ * versions) are invoked by the {@link HyperTextHandlerInterceptor}; any other route
+ * (including static resources and functional routes) renders nothing. Headers set by
+ * the included handler are ignored, as for any include.
+ */
+public class HyperTextIncludeView implements View {
+
+	/**
+	 * The name of the request attribute that marks an included request.
+	 */
+	public static final String INCLUDE_ATTRIBUTE = HyperTextIncludeView.class.getName() + ".INCLUDE";
+
+	private static final String REQUEST_ATTRIBUTE = HyperTextRequest.class.getName();
+
+	private final String path;
+
+	private final Map<String, String> headers;
+
+	/**
+	 * @param path    the path of the route to include, starting with "/" (relative to
+	 *                the context path), optionally with a query string
+	 * @param headers extra request headers for the included request
+	 */
+	public HyperTextIncludeView(String path, Map<String, String> headers) {
+		Assert.isTrue(path != null && path.startsWith("/"), "Path must start with '/'");
+		this.path = path;
+		this.headers = new LinkedHashMap<>(headers);
+	}
+
+	public String getPath() {
+		return this.path;
+	}
+
+	@Override
+	public String getContentType() {
+		return MediaType.TEXT_HTML_VALUE;
+	}
+
+	@Override
+	public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		RequestDispatcher dispatcher = request.getRequestDispatcher(this.path);
+		if (dispatcher == null) {
+			throw new IllegalStateException("No RequestDispatcher for " + this.path);
+		}
+		dispatcher.include(new IncludedRequest(request, this.headers), response);
+	}
+
+	/**
+	 * Adds the extra headers and keeps its own attributes for the hypermedia request
+	 * and the include marker, so they do not leak into the outer request. The
+	 * hypermedia headers of the outer request (e.g. its {@code HX-Target}) are hidden,
+	 * and the method is always GET, so the included route sees a plain request for a
+	 * fragment, whatever request it is included in.
+	 */
+	static class IncludedRequest extends HttpServletRequestWrapper {
+
+		private static final String[] HYPERMEDIA_PREFIXES = { "hx-", "x-up-", "turbo-", "x-turbo-" };
+
+		private final Map<String, String> headers = new LinkedHashMap<>();
+
+		private final Map<String, Object> attributes = new HashMap<>();
+
+		IncludedRequest(HttpServletRequest request, Map<String, String> headers) {
+			super(request);
+			headers.forEach((name, value) -> this.headers.put(name.toLowerCase(), value));
+			this.attributes.put(INCLUDE_ATTRIBUTE, Boolean.TRUE);
+		}
+
+		@Override
+		public String getMethod() {
+			return "GET";
+		}
+
+		@Override
+		public String getHeader(String name) {
+			String value = this.headers.get(name.toLowerCase());
+			if (value != null || isHypermedia(name)) {
+				return value;
+			}
+			return super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			String value = this.headers.get(name.toLowerCase());
+			if (value != null) {
+				return Collections.enumeration(Set.of(value));
+			}
+			return isHypermedia(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			Set<String> names = new LinkedHashSet<>();
+			for (String name : Collections.list(super.getHeaderNames())) {
+				if (!isHypermedia(name)) {
+					names.add(name);
+				}
+			}
+			names.addAll(this.headers.keySet());
+			return Collections.enumeration(names);
+		}
+
+		@Override
+		public int getIntHeader(String name) {
+			String value = getHeader(name);
+			return value != null ? Integer.parseInt(value) : -1;
+		}
+
+		private static boolean isHypermedia(String name) {
+			String lower = name.toLowerCase();
+			for (String prefix : HYPERMEDIA_PREFIXES) {
+				if (lower.startsWith(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Object getAttribute(String name) {
+			if (isLocal(name)) {
+				return this.attributes.get(name);
+			}
+			return super.getAttribute(name);
+		}
+
+		@Override
+		public void setAttribute(String name, Object value) {
+			if (isLocal(name)) {
+				this.attributes.put(name, value);
+				return;
+			}
+			super.setAttribute(name, value);
+		}
+
+		@Override
+		public void removeAttribute(String name) {
+			if (isLocal(name)) {
+				this.attributes.remove(name);
+				return;
+			}
+			super.removeAttribute(name);
+		}
+
+		private static boolean isLocal(String name) {
+			return REQUEST_ATTRIBUTE.equals(name) || INCLUDE_ATTRIBUTE.equals(name);
+		}
+
+	}
+
+}
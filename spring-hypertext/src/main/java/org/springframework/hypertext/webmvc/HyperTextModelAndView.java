@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.util.function.UnaryOperator;
+
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+
+/**
+ * A {@link ModelAndView} with extra rendering options for use in a
+ * {@link HyperTextResponse}.
+ */
+public class HyperTextModelAndView extends ModelAndView {
+
+	private String[] cacheKeys;
+
+	private String[] sharedKeys;
+
+	private String prefix;
+
+	private String suffix;
+
+	private UnaryOperator<String> decorator;
+
+	private String version;
+
+	public HyperTextModelAndView(String viewName) {
+		super(viewName);
+	}
+
+	public HyperTextModelAndView(View view) {
+		super(view);
+	}
+
+	/**
+	 * Mark the view as cacheable: its rendered output is reused for all requests with
+	 * the same view name, locale and values of the given model attributes.
+	 *
+	 * @param modelKeys the names of the model attributes that the output depends on
+	 * @return this
+	 */
+	public HyperTextModelAndView cache(String... modelKeys) {
+		this.cacheKeys = modelKeys;
+		return this;
+	}
+
+	public boolean isCacheable() {
+		return this.cacheKeys != null;
+	}
+
+	public String[] getCacheKeys() {
+		return this.cacheKeys;
+	}
+
+	/**
+	 * Mark the view as shared: concurrent requests that render it with the same locale,
+	 * values of the given model attributes and values of the request headers that the
+	 * response varies on wait for the first one and use its output. Only the first
+	 * request gets the headers that the view sets.
+	 *
+	 * @param modelKeys the names of the model attributes that the output depends on
+	 * @return this
+	 */
+	public HyperTextModelAndView shared(String... modelKeys) {
+		this.sharedKeys = modelKeys;
+		return this;
+	}
+
+	public boolean isShared() {
+		return this.sharedKeys != null;
+	}
+
+	public String[] getSharedKeys() {
+		return this.sharedKeys;
+	}
+
+	/**
+	 * Surround the rendered output of the view with some fixed markup, e.g. an element
+	 * that tells the client library what to do with it. The prefix and suffix are not
+	 * part of the cached output if the view is also cacheable.
+	 *
+	 * @param prefix text to write before the view
+	 * @param suffix text to write after the view
+	 * @return this
+	 */
+	public HyperTextModelAndView wrap(String prefix, String suffix) {
+		this.prefix = prefix;
+		this.suffix = suffix;
+		return this;
+	}
+
+	public String getPrefix() {
+		return this.prefix;
+	}
+
+	public String getSuffix() {
+		return this.suffix;
+	}
+
+	/**
+	 * Change the rendered output of the view before it is written, e.g. to add an
+	 * attribute to its root element. The output of the view is buffered for that, and
+	 * the cached output does not include the change if the view is also cacheable.
+	 *
+	 * @param decorator a function from the markup of the view to the markup to write
+	 * @return this
+	 */
+	public HyperTextModelAndView decorate(UnaryOperator<String> decorator) {
+		this.decorator = decorator;
+		return this;
+	}
+
+	public UnaryOperator<String> getDecorator() {
+		return this.decorator;
+	}
+
+	/**
+	 * Set a key that changes whenever the rendered output of the view would change, so
+	 * that a conditional request can be answered without rendering it.
+	 *
+	 * @param version the version key
+	 * @return this
+	 */
+	public HyperTextModelAndView version(String version) {
+		this.version = version;
+		return this;
+	}
+
+	public String getVersion() {
+		return this.version;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import io.micrometer.observation.Observation;
+
+/**
+ * Context for the observation of a single view (usually a fragment of a page) rendered
+ * as part of a hypermedia response.
+ */
+public class HyperTextRenderObservationContext extends Observation.Context {
+
+	private final String viewName;
+
+	private final String library;
+
+	private long bytes = -1;
+
+	public HyperTextRenderObservationContext(String viewName, String library) {
+		this.viewName = viewName;
+		this.library = library;
+	}
+
+	/**
+	 * @return the name of the view being rendered
+	 */
+	public String getViewName() {
+		return this.viewName;
+	}
+
+	/**
+	 * @return the hypermedia library that sent the request (e.g. "htmx"), or "none" if
+	 * it was a plain request
+	 */
+	public String getLibrary() {
+		return this.library;
+	}
+
+	/**
+	 * @return the number of bytes written by the view, or -1 if it is not known (yet)
+	 */
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	public void setBytes(long bytes) {
+		this.bytes = bytes;
+	}
+
+}
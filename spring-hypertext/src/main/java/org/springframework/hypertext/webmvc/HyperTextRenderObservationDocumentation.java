@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import io.micrometer.common.docs.KeyName;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationConvention;
+import io.micrometer.observation.docs.ObservationDocumentation;
+
+/**
+ * Documented {@link KeyName KeyNames} for the observations of views rendered in a
+ * hypermedia response.
+ */
+public enum HyperTextRenderObservationDocumentation implements ObservationDocumentation {
+
+	/**
+	 * Rendering of a single view in a response.
+	 */
+	RENDER {
+		@Override
+		public Class<? extends ObservationConvention<? extends Observation.Context>> getDefaultConvention() {
+			return DefaultHyperTextRenderObservationConvention.class;
+		}
+
+		@Override
+		public KeyName[] getLowCardinalityKeyNames() {
+			return LowCardinalityKeyNames.values();
+		}
+
+		@Override
+		public KeyName[] getHighCardinalityKeyNames() {
+			return HighCardinalityKeyNames.values();
+		}
+	};
+
+	public enum LowCardinalityKeyNames implements KeyName {
+
+		/**
+		 * Name of the view that was rendered.
+		 */
+		VIEW {
+			@Override
+			public String asString() {
+				return "view";
+			}
+		},
+
+		/**
+		 * Hypermedia library that sent the request ("htmx", "unpoly", etc.), or "none".
+		 */
+		LIBRARY {
+			@Override
+			public String asString() {
+				return "library";
+			}
+		},
+
+		/**
+		 * Simple name of the exception thrown while rendering, or "none".
+		 */
+		EXCEPTION {
+			@Override
+			public String asString() {
+				return "exception";
+			}
+		}
+
+	}
+
+	public enum HighCardinalityKeyNames implements KeyName {
+
+		/**
+		 * Number of bytes written by the view.
+		 */
+		BYTES {
+			@Override
+			public String asString() {
+				return "bytes";
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records an {@link Observation} for each view rendered in a hypermedia response, so
+ * that a slow fragment shows up on its own instead of being hidden in the timing of the
+ * whole request. The observations are tagged with the view name, the hypermedia library
+ * that sent the request (from the {@link HeaderNameExtractor#getLibrary() extractors})
+ * and the number of bytes written. If the registry is a no-op, views are rendered with
+ * no extra work.
+ */
+public class HyperTextRenderObserver {
+
+	private static final HyperTextRenderObservationConvention DEFAULT_CONVENTION = new DefaultHyperTextRenderObservationConvention();
+
+	private final ObjectFactory<ObservationRegistry> registries;
+
+	private final Iterable<HeaderNameExtractor> extractors;
+
+	private volatile ObservationRegistry registry;
+
+	private HyperTextRenderObservationConvention convention;
+
+	public HyperTextRenderObserver(ObjectFactory<ObservationRegistry> registry, Iterable<HeaderNameExtractor> extractors) {
+		this.registries = registry;
+		this.extractors = extractors;
+	}
+
+	/**
+	 * Set a custom convention for the observations. Default is
+	 * {@link DefaultHyperTextRenderObservationConvention}.
+	 *
+	 * @param convention the convention to use
+	 */
+	public void setObservationConvention(HyperTextRenderObservationConvention convention) {
+		this.convention = convention;
+	}
+
+	void observe(String viewName, HttpServletRequest request, HttpServletResponse response, Render render)
+			throws Exception {
+		ObservationRegistry registry = registry();
+		if (registry.isNoop()) {
+			render.render();
+			return;
+		}
+		HyperTextRenderObservationContext context = new HyperTextRenderObservationContext(viewName, library(request));
+		Observation observation = HyperTextRenderObservationDocumentation.RENDER
+				.observation(this.convention, DEFAULT_CONVENTION, () -> context, registry)
+				.start();
+		long start = size(response);
+		try (Observation.Scope scope = observation.openScope()) {
+			render.render();
+		}
+		catch (Exception ex) {
+			observation.error(ex);
+			throw ex;
+		}
+		finally {
+			long end = size(response);
+			context.setBytes(start < 0 || end < 0 ? -1 : end - start);
+			observation.stop();
+		}
+	}
+
+	private ObservationRegistry registry() {
+		ObservationRegistry registry = this.registry;
+		if (registry == null) {
+			registry = this.registries.getObject();
+			this.registry = registry;
+		}
+		return registry;
+	}
+
+	private String library(HttpServletRequest request) {
+		for (HeaderNameExtractor extractor : this.extractors) {
+			if (extractor.getLibrary() != null && !extractor.getHeaders(request).isEmpty()) {
+				return extractor.getLibrary();
+			}
+		}
+		return "none";
+	}
+
+	private long size(HttpServletResponse response) {
+		if (response instanceof ContentCachingResponseWrapper wrapper) {
+			return wrapper.getContentSize();
+		}
+		if (response instanceof StreamingResponseWrapper wrapper) {
+			return wrapper.getContentSize();
+		}
+		if (response instanceof PooledResponseWrapper wrapper) {
+			return wrapper.getContentSize();
+		}
+		if (response instanceof BufferedResponse buffer) {
+			return buffer.getContentSize();
+		}
+		return -1;
+	}
+
+	interface Render {
+
+		void render() throws Exception;
+
+	}
+
+}
@@ -15,20 +15,119 @@
  */
 package org.springframework.hypertext.webmvc;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Information about the current request from a hypermedia library. An instance is
+ * created once per request and stored in a request attribute (see
+ * {@link #from(HttpServletRequest)}), so the interceptor, argument resolver and any
+ * other component share it. Library specific views of the request (e.g.
+ * {@code HtmxRequest}) are created on first access with {@link #as(Class, Function)}
+ * and cached here too, so each header is only parsed once.
+ */
 public class HyperTextRequest {
 
-	private boolean active;
+	private static final String ATTRIBUTE = HyperTextRequest.class.getName();
+
+	private static final String[] DEFAULT_HEADERS = { "HX-Request", "X-Up-Version", "X-Turbo-Request-Id" };
+
+	private static final Function<String, String> NO_HEADERS = name -> null;
+
+	private final Function<String, String> headers;
+
+	private Boolean active;
+
+	// Views in parallel renders share this instance through a copy of the attributes
+	private final Map<Class<?>, Object> views = new ConcurrentHashMap<>(4);
 
 	public HyperTextRequest() {
 		this(true);
 	}
 
 	private HyperTextRequest(boolean active) {
+		this.headers = NO_HEADERS;
 		this.active = active;
 	}
 
+	private HyperTextRequest(Function<String, String> headers) {
+		this.headers = headers;
+	}
+
+	/**
+	 * The shared instance for a request, created on first access.
+	 *
+	 * @param request the current request
+	 * @return the hypermedia request
+	 */
+	public static HyperTextRequest from(HttpServletRequest request) {
+		if (request.getAttribute(ATTRIBUTE) instanceof HyperTextRequest existing) {
+			return existing;
+		}
+		HyperTextRequest result = new HyperTextRequest(request::getHeader);
+		request.setAttribute(ATTRIBUTE, result);
+		return result;
+	}
+
+	/**
+	 * A new instance for the headers of a reactive request.
+	 *
+	 * @param headers the request headers
+	 * @return the hypermedia request
+	 */
+	public static HyperTextRequest from(HttpHeaders headers) {
+		return new HyperTextRequest(headers::getFirst);
+	}
+
+	/**
+	 * Whether the request comes from one of the supported hypermedia libraries.
+	 *
+	 * @return true if the request has a header from htmx, Unpoly or Turbo
+	 */
 	public boolean isActive() {
-		return active;
+		if (this.active == null) {
+			this.active = hasAny(DEFAULT_HEADERS);
+		}
+		return this.active;
+	}
+
+	/**
+	 * @param names header names
+	 * @return true if the request has any of the headers
+	 */
+	public boolean hasAny(String... names) {
+		for (String name : names) {
+			if (getHeader(name) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param name a header name
+	 * @return the value of the request header, or null if it is not present
+	 */
+	public String getHeader(String name) {
+		return this.headers.apply(name);
+	}
+
+	/**
+	 * A typed view of the request, created by the factory on first access and cached.
+	 * It is safe to call from more than one thread, and they all get the same view.
+	 *
+	 * @param <T>     the type of the view
+	 * @param type    the type of the view
+	 * @param factory a factory for the view
+	 * @return the view
+	 */
+	public <T> T as(Class<T> type, Function<HyperTextRequest, T> factory) {
+		return type.cast(this.views.computeIfAbsent(type, key -> factory.apply(this)));
 	}
 
 	public static HyperTextRequest empty() {
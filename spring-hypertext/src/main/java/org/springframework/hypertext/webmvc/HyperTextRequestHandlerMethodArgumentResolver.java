@@ -51,13 +51,8 @@ public class HyperTextRequestHandlerMethodArgumentResolver implements HandlerMet
 	}
 
 	protected HyperTextRequest createHyperTextRequest(HttpServletRequest request) {
-		for (String headerName : headerNames) {
-			String hxRequestHeader = request.getHeader(headerName);
-			if (hxRequestHeader != null) {
-				return new HyperTextRequest();
-			}
-		}
-		return HyperTextRequest.empty();
+		HyperTextRequest result = HyperTextRequest.from(request);
+		return result.hasAny(headerNames) ? result : HyperTextRequest.empty();
 	}
 
 }
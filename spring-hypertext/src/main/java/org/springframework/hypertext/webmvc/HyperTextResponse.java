@@ -15,12 +15,15 @@
  */
 package org.springframework.hypertext.webmvc;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,19 +34,40 @@ public class HyperTextResponse {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(HyperTextResponse.class);
 
-	private final Set<ModelAndView> views = new LinkedHashSet<>();
+	private final List<ModelAndView> views;
 	private final Map<String, HyperTextDetail> details = new LinkedHashMap<>();
+	private final boolean buffered;
+	private final boolean streaming;
+	private final String contentType;
+	private final boolean eTag;
+	private final String version;
+	private final Supplier<? extends Map<String, ?>> model;
+	private final int unchangedStatus;
+	private final boolean parallel;
 
 	protected HyperTextResponse() {
-	}
-
-	private HyperTextResponse(Set<ModelAndView> views, Map<String, HyperTextDetail> details) {
-		this.views.addAll(views);
-		this.details.putAll(details);
+		this.views = Collections.emptyList();
+		this.buffered = false;
+		this.streaming = false;
+		this.contentType = null;
+		this.eTag = false;
+		this.version = null;
+		this.model = null;
+		this.unchangedStatus = 0;
+		this.parallel = false;
 	}
 
 	public HyperTextResponse(Builder<?> builder) {
-		this(builder.views, builder.details());
+		this.views = new ArrayList<>(builder.views);
+		builder.details.forEach((name, detail) -> this.details.put(name, detail.freeze()));
+		this.buffered = builder.buffered;
+		this.streaming = builder.streaming;
+		this.contentType = builder.contentType;
+		this.eTag = builder.eTag;
+		this.version = builder.version;
+		this.model = builder.model;
+		this.unchangedStatus = builder.unchangedStatus;
+		this.parallel = builder.parallel;
 	}
 
 	public static Builder<?> builder() {
@@ -58,9 +82,99 @@ public class HyperTextResponse {
 		return Collections.unmodifiableMap(details);
 	}
 
+	/**
+	 * Whether the rendered views must be buffered before anything is written to the
+	 * response, even if streaming is enabled.
+	 *
+	 * @return true if the response has to be buffered
+	 */
+	public boolean isBuffered() {
+		return buffered;
+	}
+
+	/**
+	 * Whether the rendered views should be written to the response as they render, even
+	 * if streaming is not enabled globally. A buffered response is never streamed.
+	 *
+	 * @return true if the response should be streamed
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * The content type of the whole response, overriding whatever the individual views
+	 * set, or {@code null} to let the views decide.
+	 *
+	 * @return the content type
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * Whether the response should get a strong ETag computed from the rendered body, so
+	 * that a conditional GET can be answered with 304 (Not Modified).
+	 *
+	 * @return true if the body should be used for an ETag
+	 */
+	public boolean isETag() {
+		return eTag;
+	}
+
+	/**
+	 * A version key supplied by the controller, used for a weak ETag instead of the
+	 * rendered body, or {@code null} if there is none.
+	 *
+	 * @return the version key
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Model attributes that are only computed if the views are actually rendered, or
+	 * {@code null} if there are none.
+	 *
+	 * @return a supplier for the model attributes
+	 */
+	public Supplier<? extends Map<String, ?>> getModel() {
+		return model;
+	}
+
+	/**
+	 * The status to send instead of 304 (Not Modified) when the version keys match the
+	 * {@code If-None-Match} header, or 0 for the default.
+	 *
+	 * @return the status code
+	 */
+	public int getUnchangedStatus() {
+		return unchangedStatus;
+	}
+
+	/**
+	 * Whether the views can be rendered concurrently, even if parallel rendering is not
+	 * enabled globally.
+	 *
+	 * @return true if the views are independent of each other
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
 	public static class Builder<T extends Builder<T>> {
-		private final Set<ModelAndView> views = new LinkedHashSet<>();
+		private final List<ModelAndView> views = new ArrayList<>();
+		// Views by name or instance, for finding duplicates without scanning the list
+		private final Set<Object> index = new HashSet<>();
 		private final Map<String, HyperTextDetail> details = new LinkedHashMap<>();
+		private boolean buffered;
+		private boolean streaming;
+		private String contentType;
+		private boolean eTag;
+		private String version;
+		private Supplier<? extends Map<String, ?>> model;
+		private int unchangedStatus;
+		private boolean parallel;
 
 		public HyperTextResponse build() {
 			return new HyperTextResponse(this);
@@ -77,13 +191,162 @@ public class HyperTextResponse {
 
 		public T and(HyperTextResponse other) {
 			other.views.forEach(template -> {
-				if (views.stream().anyMatch(mav -> same(mav, template))) {
+				if (contains(key(template))) {
 					LOGGER.warn("Duplicate template '{}' found while merging HyperTextResponse", template);
 				} else {
-					views.add(template);
+					append(template);
 				}
 			});
 			details.putAll(other.details);
+			if (other.buffered) {
+				buffered = true;
+			}
+			if (other.streaming) {
+				streaming = true;
+			}
+			if (other.contentType != null) {
+				contentType = other.contentType;
+			}
+			if (other.eTag) {
+				eTag = true;
+			}
+			if (other.version != null) {
+				version = version == null ? other.version : version + "," + other.version;
+			}
+			if (other.model != null) {
+				model(other.model);
+			}
+			if (other.parallel) {
+				parallel = true;
+			}
+			if (other.unchangedStatus != 0) {
+				unchangedStatus = other.unchangedStatus;
+			}
+			return self();
+		}
+
+		/**
+		 * Buffer the whole body before writing it to the response. Use this when a view
+		 * needs to set headers after an earlier view has already rendered.
+		 *
+		 * @return the builder
+		 */
+		public T buffered() {
+			buffered = true;
+			return self();
+		}
+
+		/**
+		 * Write each view to the response as soon as it has rendered, even if streaming
+		 * is not enabled globally. Ignored if the response is {@link #buffered()}.
+		 *
+		 * @return the builder
+		 */
+		public T streaming() {
+			streaming = true;
+			return self();
+		}
+
+		/**
+		 * Render the views concurrently on a background executor, each into its own
+		 * buffer, and write them to the response in order. Only use this when the views
+		 * do not depend on each other (e.g. through request attributes) and the
+		 * executor is configured.
+		 *
+		 * @return the builder
+		 */
+		public T parallel() {
+			parallel = true;
+			return self();
+		}
+
+		/**
+		 * Set the content type of the whole response. Views can not change it when
+		 * they render.
+		 *
+		 * @param contentType the content type
+		 * @return the builder
+		 */
+		public T contentType(String contentType) {
+			this.contentType = contentType;
+			return self();
+		}
+
+		/**
+		 * Compute a strong ETag from the rendered body and send 304 (Not Modified)
+		 * instead of the body if it matches the {@code If-None-Match} header of a GET
+		 * request. The response is always buffered.
+		 *
+		 * @return the builder
+		 */
+		public T etag() {
+			eTag = true;
+			return self();
+		}
+
+		/**
+		 * Use a weak ETag derived from the given version key (plus the request headers
+		 * that the response varies on) and send 304 (Not Modified) before rendering
+		 * anything if it matches the {@code If-None-Match} header of a GET request.
+		 *
+		 * @param version a key that changes whenever the rendered views would change
+		 * @return the builder
+		 */
+		public T etag(String version) {
+			this.version = version;
+			return self();
+		}
+
+		/**
+		 * Send a different status than 304 (Not Modified) when the version keys match,
+		 * e.g. to tell the client library that there is nothing to swap.
+		 *
+		 * @param status the status code
+		 * @return the builder
+		 */
+		public T unchanged(int status) {
+			this.unchangedStatus = status;
+			return self();
+		}
+
+		/**
+		 * Add model attributes that are expensive to compute. They are only requested
+		 * if the views are actually rendered, not if the response can be answered from
+		 * the version keys.
+		 *
+		 * @param model a supplier for the model attributes
+		 * @return the builder
+		 */
+		public T model(Supplier<? extends Map<String, ?>> model) {
+			if (this.model == null) {
+				this.model = model;
+			}
+			else {
+				Supplier<? extends Map<String, ?>> first = this.model;
+				this.model = () -> {
+					Map<String, Object> merged = new LinkedHashMap<>(first.get());
+					merged.putAll(model.get());
+					return merged;
+				};
+			}
+			return self();
+		}
+
+		/**
+		 * Append a view name with a version key that changes whenever its rendered
+		 * output would change (e.g. a last modified timestamp). If all the views in the
+		 * response have a version (or there is a version for the whole response) a GET
+		 * request with a matching {@code If-None-Match} header is answered without
+		 * rendering anything, or computing the {@link #model(Supplier) lazy model}.
+		 *
+		 * @param viewName the name of the view
+		 * @param version  the version key
+		 * @return the builder
+		 */
+		public T view(String viewName, Object version) {
+			if (!contains(viewName)) {
+				append(new HyperTextModelAndView(viewName).version(String.valueOf(version)));
+			}
 			return self();
 		}
 
@@ -94,7 +357,7 @@ public class HyperTextResponse {
 		 * @return the builder
 		 */
 		public T view(ModelAndView view) {
-			views.add(view);
+			append(view);
 			return self();
 		}
 
@@ -106,8 +369,8 @@ public class HyperTextResponse {
 		 * @return the builder
 		 */
 		public T view(View view) {
-			if (!views.stream().anyMatch(mav -> view.equals(mav.getView()))) {
-				views.add(new ModelAndView(view));
+			if (!contains(view)) {
+				append(new ModelAndView(view));
 			}
 			return self();
 		}
@@ -120,8 +383,41 @@ public class HyperTextResponse {
 		 * @return the builder
 		 */
 		public T view(String viewName) {
-			if (!views.stream().anyMatch(mav -> viewName.equals(mav.getViewName()))) {
-				views.add(new ModelAndView(viewName));
+			if (!contains(viewName)) {
+				append(new ModelAndView(viewName));
+			}
+			return self();
+		}
+
+		/**
+		 * Append a view name whose rendered output is cached and reused for all
+		 * requests with the same locale and values of the given model attributes (e.g.
+		 * a menu that looks the same for all users).
+		 *
+		 * @param viewName  the name of the view
+		 * @param modelKeys the names of the model attributes the output depends on
+		 * @return the builder
+		 */
+		public T cache(String viewName, String... modelKeys) {
+			if (!contains(viewName)) {
+				append(new HyperTextModelAndView(viewName).cache(modelKeys));
+			}
+			return self();
+		}
+
+		/**
+		 * Append a view name whose rendered output is shared by concurrent requests
+		 * with the same locale, values of the given model attributes and values of the
+		 * request headers that the response varies on, so that only one of them renders
+		 * it (e.g. a public fragment that many clients poll at the same time).
+		 *
+		 * @param viewName  the name of the view
+		 * @param modelKeys the names of the model attributes the output depends on
+		 * @return the builder
+		 */
+		public T shared(String viewName, String... modelKeys) {
+			if (!contains(viewName)) {
+				append(new HyperTextModelAndView(viewName).shared(modelKeys));
 			}
 			return self();
 		}
@@ -151,26 +447,36 @@ public class HyperTextResponse {
 			if (existing == null) {
 				details.put(name, HyperTextDetail.from(Map.of(key, value)));
 			} else {
+				if (existing.isFrozen()) {
+					existing = HyperTextDetail.from(existing.asMap());
+					details.put(name, existing);
+				}
 				Map<String, Object> copy = existing.asMap();
 				copy.put(key, value);
 			}
 			return self();
 		}
 
-		private static boolean same(ModelAndView one, ModelAndView two) {
-			if (one == two) {
-				return true;
-			}
-			if (one == null || two == null) {
-				return false;
-			}
-			if (one.getViewName() != null && one.getViewName().equals(two.getViewName())) {
-				return true;
+		private void append(ModelAndView view) {
+			views.add(view);
+			Object key = key(view);
+			if (key != null) {
+				index.add(key);
 			}
-			if (one.getView() != null && one.getView().equals(two.getView())) {
-				return true;
+		}
+
+		private boolean contains(Object key) {
+			return key != null && index.contains(key);
+		}
+
+		private static Object key(ModelAndView view) {
+			if (view instanceof HyperTextModelAndView wrapped && (wrapped.getPrefix() != null
+					|| wrapped.getSuffix() != null || wrapped.getDecorator() != null)) {
+				// A wrapped view is an action of its own (e.g. a Turbo Stream or an out of
+				// band swap), even if another one renders the same view
+				return null;
 			}
-			return false;
+			return view.getViewName() != null ? view.getViewName() : view.getView();
 		}
 	}
 
@@ -15,19 +15,16 @@
  */
 package org.springframework.hypertext.webmvc;
 
-import java.util.Locale;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.core.MethodParameter;
-import org.springframework.util.Assert;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.LocaleResolver;
-import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -37,6 +34,15 @@ public class HyperTextResponseHandlerMethodReturnValueHandler implements Handler
 	private final ViewResolver views;
 	private final ObjectFactory<LocaleResolver> locales;
 	private final HyperTextDetailHeaderManager headerManager;
+	private HyperTextSingleFlight singleFlight;
+	private boolean streaming;
+	private HyperTextFragmentSelector fragmentSelector;
+	private HyperTextFragmentCache fragmentCache;
+	private HyperTextBufferPool bufferPool;
+	private HyperTextRenderObserver renderObserver;
+	private boolean eTag;
+	private boolean parallel;
+	private Executor taskExecutor;
 
 	public HyperTextResponseHandlerMethodReturnValueHandler(ViewResolver views,
 			ObjectFactory<LocaleResolver> locales,
@@ -46,6 +52,102 @@ public class HyperTextResponseHandlerMethodReturnValueHandler implements Handler
 		this.headerManager = new HyperTextDetailHeaderManager(objectMapper);
 	}
 
+	/**
+	 * Write each view straight to the servlet output stream as it renders, instead of
+	 * buffering the whole body. Responses that are marked as buffered are always
+	 * buffered. Default is {@code false}.
+	 *
+	 * @param streaming the flag to set
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set a selector that narrows full page views down to the fragment targeted by the
+	 * request. Default is none (views are rendered as they are).
+	 *
+	 * @param fragmentSelector the selector to use
+	 */
+	public void setFragmentSelector(HyperTextFragmentSelector fragmentSelector) {
+		this.fragmentSelector = fragmentSelector;
+	}
+
+	/**
+	 * Set a cache for the output of views that are marked as cacheable with
+	 * {@link HyperTextModelAndView#cache(String...)}. Default is none (all views are
+	 * rendered every time).
+	 *
+	 * @param fragmentCache the cache to use
+	 */
+	public void setFragmentCache(HyperTextFragmentCache fragmentCache) {
+		this.fragmentCache = fragmentCache;
+	}
+
+	/**
+	 * Set a single-flight layer, so that concurrent requests that render the same
+	 * shared view (see {@link HyperTextModelAndView#shared(String...)}), or miss the
+	 * cache for the same cacheable view, only render it once. Default is none.
+	 *
+	 * @param singleFlight the single-flight layer to use
+	 */
+	public void setSingleFlight(HyperTextSingleFlight singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
+	/**
+	 * Set a pool of buffers for the output of responses that are not streamed. Default
+	 * is none (a new buffer for each response).
+	 *
+	 * @param bufferPool the pool to use
+	 */
+	public void setBufferPool(HyperTextBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * Set an observer that records an observation for each view as it renders. Default
+	 * is none.
+	 *
+	 * @param renderObserver the observer to use
+	 */
+	public void setRenderObserver(HyperTextRenderObserver renderObserver) {
+		this.renderObserver = renderObserver;
+	}
+
+	/**
+	 * Compute a strong ETag from the rendered body of every response (not only the ones
+	 * built with {@link HyperTextResponse.Builder#etag()}) and answer conditional GET
+	 * requests with 304 (Not Modified). Responses are then always buffered. Default is
+	 * {@code false}.
+	 *
+	 * @param eTag the flag to set
+	 */
+	public void setETag(boolean eTag) {
+		this.eTag = eTag;
+	}
+
+	/**
+	 * Render the views of every response with more than one view in parallel (not only
+	 * the ones built with {@link HyperTextResponse.Builder#parallel()}). Only use this if
+	 * views never depend on each other. Default is {@code false}.
+	 *
+	 * @param parallel the flag to set
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Set the executor for rendering views in parallel. Default is none, in which case
+	 * views are always rendered one after the other.
+	 *
+	 * @param taskExecutor the executor to use
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	@Override
 	public boolean supportsReturnType(MethodParameter returnType) {
 		return HyperTextResponse.class.isAssignableFrom(returnType.getParameterType());
@@ -65,27 +167,17 @@ public class HyperTextResponseHandlerMethodReturnValueHandler implements Handler
 	}
 
 	private View toView(HyperTextResponse htmxResponse) {
-
-		Assert.notNull(htmxResponse, "HtmxResponse must not be null!");
-
-		return (model, request, response) -> {
-			Locale locale = locales.getObject().resolveLocale(request);
-			ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
-			for (ModelAndView modelAndView : htmxResponse.getViews()) {
-				View view = modelAndView.getView();
-				if (view == null) {
-					view = views.resolveViewName(modelAndView.getViewName(), locale);
-				}
-				for (String key : model.keySet()) {
-					if (!modelAndView.getModel().containsKey(key)) {
-						modelAndView.getModel().put(key, model.get(key));
-					}
-				}
-				Assert.notNull(view, "Template '" + modelAndView + "' could not be resolved");
-				view.render(modelAndView.getModel(), request, wrapper);
-			}
-			wrapper.copyBodyToResponse();
-		};
+		HyperTextResponseView view = new HyperTextResponseView(htmxResponse, views, locales.getObject());
+		view.setStreaming(streaming);
+		view.setFragmentSelector(fragmentSelector);
+		view.setFragmentCache(fragmentCache);
+		view.setSingleFlight(singleFlight);
+		view.setBufferPool(bufferPool);
+		view.setRenderObserver(renderObserver);
+		view.setETag(eTag);
+		view.setParallel(parallel);
+		view.setTaskExecutor(taskExecutor);
+		return view;
 	}
 
 }
@@ -0,0 +1,618 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * A {@link View} that renders all the views of a {@link HyperTextResponse} one after
+ * the other. In streaming mode each view is written straight to the servlet output
+ * stream and flushed, otherwise the whole body is buffered and copied to the response
+ * at the end (which lets views change headers after earlier views have rendered).
+ * <p>
+ * A GET request can be answered with 304 (Not Modified) using a strong ETag computed
+ * from the buffered body, or a weak ETag from a version key supplied by the controller,
+ * which is checked before anything is rendered. The weak ETag includes the values of the
+ * request headers that the response varies on, so that e.g. a full page and a fragment
+ * of the same version do not share a tag.
+ * <p>
+ * If the views are independent of each other they can also be rendered in parallel on a
+ * task executor, each one into its own buffer, and copied to the response in the order
+ * they were declared.
+ */
+class HyperTextResponseView implements View {
+
+	private final HyperTextResponse response;
+	private final ViewResolver views;
+	private final LocaleResolver locales;
+	private boolean streaming;
+	private HyperTextFragmentSelector fragments;
+	private HyperTextFragmentCache cache;
+	private HyperTextSingleFlight singleFlight;
+	private HyperTextBufferPool bufferPool;
+	private HyperTextRenderObserver observer;
+	private boolean eTag;
+	private boolean parallel;
+	private Executor executor;
+	private boolean gzip;
+
+	HyperTextResponseView(HyperTextResponse response, ViewResolver views, LocaleResolver locales) {
+		Assert.notNull(response, "HyperTextResponse must not be null!");
+		this.response = response;
+		this.views = views;
+		this.locales = locales;
+		this.streaming = response.isStreaming() && !response.isBuffered();
+	}
+
+	void setStreaming(boolean streaming) {
+		this.streaming = (streaming || this.response.isStreaming()) && !this.response.isBuffered();
+	}
+
+	void setFragmentSelector(HyperTextFragmentSelector fragments) {
+		this.fragments = fragments;
+	}
+
+	void setFragmentCache(HyperTextFragmentCache cache) {
+		this.cache = cache;
+	}
+
+	void setSingleFlight(HyperTextSingleFlight singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
+	void setBufferPool(HyperTextBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	void setRenderObserver(HyperTextRenderObserver observer) {
+		this.observer = observer;
+	}
+
+	void setETag(boolean eTag) {
+		this.eTag = eTag;
+	}
+
+	void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	void setTaskExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public String getContentType() {
+		return this.response.getContentType();
+	}
+
+	@Override
+	public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		Locale locale = locales.resolveLocale(request);
+		if (isCompressible()) {
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			this.gzip = acceptsGzip(request);
+		}
+		boolean conditional = isEligibleForETag(request, response);
+		String version = conditional ? version() : null;
+		if (version != null) {
+			if (new ServletWebRequest(request, response).checkNotModified(weakETag(version, request, response))) {
+				if (this.response.getUnchangedStatus() != 0) {
+					response.setStatus(this.response.getUnchangedStatus());
+				}
+				return;
+			}
+			conditional = false;
+		}
+		Map<String, ?> attributes = attributes(model);
+		boolean eTag = conditional && (this.eTag || this.response.isETag());
+		if (this.response.getContentType() != null) {
+			response.setContentType(this.response.getContentType());
+			response = new FixedContentTypeResponseWrapper(response);
+		}
+		boolean parallel = isParallel();
+		if (this.streaming && !eTag) {
+			StreamingResponseWrapper wrapper = new StreamingResponseWrapper(response);
+			if (parallel) {
+				renderParallel(attributes, locale, request, wrapper, true);
+				return;
+			}
+			for (ModelAndView modelAndView : this.response.getViews()) {
+				observe(modelAndView, request, wrapper, () -> {
+					render(modelAndView, attributes, locale, request, wrapper);
+					wrapper.flushBuffer();
+				});
+			}
+			return;
+		}
+		PooledResponseWrapper wrapper = new PooledResponseWrapper(response, this.bufferPool);
+		try {
+			if (parallel) {
+				renderParallel(attributes, locale, request, wrapper, false);
+			}
+			else {
+				for (ModelAndView modelAndView : this.response.getViews()) {
+					observe(modelAndView, request, wrapper,
+							() -> render(modelAndView, attributes, locale, request, wrapper));
+				}
+			}
+			if (eTag && new ServletWebRequest(request, wrapper)
+					.checkNotModified(strongETag(wrapper.getContentInputStream()))) {
+				return;
+			}
+			wrapper.copyBodyToResponse();
+		}
+		finally {
+			wrapper.release();
+		}
+	}
+
+	/**
+	 * A response made of a single cached view can be sent with the gzip encoding from
+	 * the cache, if it has one. Anything else is left to the container.
+	 */
+	private boolean isCompressible() {
+		if (this.cache == null || !this.cache.isCompression() || this.response.getViews().size() != 1) {
+			return false;
+		}
+		ModelAndView view = this.response.getViews().iterator().next();
+		return view instanceof HyperTextModelAndView fragment && fragment.isCacheable()
+				&& fragment.getPrefix() == null && fragment.getSuffix() == null && fragment.getDecorator() == null;
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		for (String encoding : StringUtils.commaDelimitedListToStringArray(
+				request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+			String[] parts = StringUtils.tokenizeToStringArray(encoding, ";");
+			if (parts.length > 0 && ("gzip".equalsIgnoreCase(parts[0]) || "*".equals(parts[0]))) {
+				return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	private boolean isParallel() {
+		return this.executor != null && (this.parallel || this.response.isParallel())
+				&& this.response.getViews().size() > 1;
+	}
+
+	/**
+	 * Render all the views at once on the executor, each into its own buffer from the
+	 * pool, and then copy the buffers to the response in order (flushing after each one
+	 * if streaming). Headers that the views set are copied too, but only when their turn
+	 * comes. Each view gets its own copy of the request attributes, so they can not race
+	 * on them. Included routes are not thread safe (the container's include needs the
+	 * request thread), so they are rendered in turn on the calling thread.
+	 */
+	private void renderParallel(Map<String, ?> model, Locale locale, HttpServletRequest request,
+			HttpServletResponse response, boolean flush) throws Exception {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		List<CompletableFuture<PooledResponseWrapper>> rendered = new ArrayList<>();
+		for (ModelAndView modelAndView : this.response.getViews()) {
+			if (modelAndView.getView() instanceof HyperTextIncludeView) {
+				rendered.add(null);
+				continue;
+			}
+			ParallelRequest parallel = new ParallelRequest(request);
+			RequestAttributes attributes = requestAttributes instanceof ServletRequestAttributes servlet
+					? new ServletRequestAttributes(parallel, servlet.getResponse()) : requestAttributes;
+			rendered.add(CompletableFuture.supplyAsync(() -> {
+				RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+				LocaleContext previousLocale = LocaleContextHolder.getLocaleContext();
+				RequestContextHolder.setRequestAttributes(attributes);
+				LocaleContextHolder.setLocaleContext(localeContext);
+				PooledResponseWrapper buffer = new PooledResponseWrapper(new BufferedResponse(), this.bufferPool);
+				try {
+					observe(modelAndView, parallel, buffer,
+							() -> render(modelAndView, model, locale, parallel, buffer));
+					return buffer;
+				}
+				catch (Exception ex) {
+					buffer.release();
+					throw new CompletionException(ex);
+				}
+				finally {
+					RequestContextHolder.setRequestAttributes(previousAttributes);
+					LocaleContextHolder.setLocaleContext(previousLocale);
+				}
+			}, this.executor));
+		}
+		try {
+			int index = 0;
+			for (ModelAndView modelAndView : this.response.getViews()) {
+				CompletableFuture<PooledResponseWrapper> future = rendered.get(index++);
+				if (future != null) {
+					copy(future.get(), response);
+				}
+				else {
+					observe(modelAndView, request, response,
+							() -> render(modelAndView, model, locale, request, response));
+				}
+				if (flush) {
+					response.flushBuffer();
+				}
+			}
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+		finally {
+			// Nothing left to do if they all completed, otherwise give back the buffers
+			// that were not copied (releasing twice is harmless)
+			for (CompletableFuture<PooledResponseWrapper> future : rendered) {
+				if (future != null && !future.cancel(false) && !future.isCompletedExceptionally()) {
+					future.join().release();
+				}
+			}
+		}
+	}
+
+	private void copy(PooledResponseWrapper buffer, HttpServletResponse response) throws IOException {
+		for (String name : buffer.getHeaderNames()) {
+			if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+				if (response.getContentType() == null) {
+					response.setContentType(buffer.getHeader(name));
+				}
+				continue;
+			}
+			for (String value : buffer.getHeaders(name)) {
+				response.addHeader(name, value);
+			}
+		}
+		if (buffer.getContentType() != null && response.getContentType() == null) {
+			response.setContentType(buffer.getContentType());
+		}
+		if (buffer.getStatus() != HttpServletResponse.SC_OK) {
+			response.setStatus(buffer.getStatus());
+		}
+		buffer.copyBodyTo(response);
+	}
+
+	private Map<String, ?> attributes(Map<String, ?> model) {
+		if (this.response.getModel() == null) {
+			return model;
+		}
+		Map<String, Object> merged = new LinkedHashMap<>(model);
+		merged.putAll(this.response.getModel().get());
+		return merged;
+	}
+
+	private boolean isEligibleForETag(HttpServletRequest request, HttpServletResponse response) {
+		if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			return false;
+		}
+		if (response.getStatus() < 200 || response.getStatus() >= 300
+				|| response.getHeader(HttpHeaders.ETAG) != null) {
+			return false;
+		}
+		String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+		return cacheControl == null || !cacheControl.contains("no-store");
+	}
+
+	/**
+	 * Combine the version key of the response with the version keys of the views. If the
+	 * response has no version of its own then all views need one.
+	 */
+	private String version() {
+		StringBuilder builder = new StringBuilder();
+		if (this.response.getVersion() != null) {
+			builder.append(this.response.getVersion());
+		}
+		for (ModelAndView modelAndView : this.response.getViews()) {
+			if (modelAndView instanceof HyperTextModelAndView versioned && versioned.getVersion() != null) {
+				builder.append(',').append(versioned.getViewName()).append('=').append(versioned.getVersion());
+			}
+			else if (this.response.getVersion() == null) {
+				return null;
+			}
+		}
+		return builder.isEmpty() ? null : builder.toString();
+	}
+
+	private String weakETag(String version, HttpServletRequest request, HttpServletResponse response) {
+		String key = version + vary(request, response);
+		if (this.fragments != null) {
+			// The response is only marked as varying on the target once a view is narrowed
+			// down to it, which is after the check
+			StringBuilder builder = new StringBuilder(key);
+			for (String name : this.fragments.getHeaderNames()) {
+				builder.append('\n').append(name).append('=').append(request.getHeader(name));
+			}
+			key = builder.toString();
+		}
+		return "W/\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	/**
+	 * The values of the request headers that the response varies on, one per line.
+	 */
+	private static String vary(HttpServletRequest request, HttpServletResponse response) {
+		StringBuilder builder = new StringBuilder();
+		for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+			for (String name : StringUtils.commaDelimitedListToStringArray(vary)) {
+				builder.append('\n').append(name.trim()).append('=').append(request.getHeader(name.trim()));
+			}
+		}
+		return builder.toString();
+	}
+
+	private static String strongETag(InputStream content) throws IOException {
+		return "\"0" + DigestUtils.md5DigestAsHex(content) + "\"";
+	}
+
+	private void observe(ModelAndView modelAndView, HttpServletRequest request, HttpServletResponse response,
+			HyperTextRenderObserver.Render render) throws Exception {
+		if (this.observer == null) {
+			render.render();
+			return;
+		}
+		String viewName = modelAndView.getViewName() != null ? modelAndView.getViewName()
+				: modelAndView.getView().getClass().getSimpleName();
+		this.observer.observe(viewName, request, response, render);
+	}
+
+	private void render(ModelAndView modelAndView, Map<String, ?> model, Locale locale, HttpServletRequest request,
+			HttpServletResponse response) throws Exception {
+		if (modelAndView instanceof HyperTextModelAndView decorated && decorated.getDecorator() != null) {
+			PooledResponseWrapper buffer = new PooledResponseWrapper(response, this.bufferPool);
+			try {
+				renderView(modelAndView, model, locale, request, buffer);
+				Charset charset = Charset.forName(response.getCharacterEncoding());
+				String markup = decorated.getDecorator().apply(new String(buffer.getContentAsByteArray(), charset));
+				response.getOutputStream().write(markup.getBytes(charset));
+			}
+			finally {
+				buffer.release();
+			}
+			return;
+		}
+		if (modelAndView instanceof HyperTextModelAndView wrapped && wrapped.getPrefix() != null) {
+			write(response, wrapped.getPrefix());
+			renderView(modelAndView, model, locale, request, response);
+			// Flush text the view wrote, so that it stays in order with the suffix
+			response.flushBuffer();
+			write(response, wrapped.getSuffix());
+			return;
+		}
+		renderView(modelAndView, model, locale, request, response);
+	}
+
+	/**
+	 * Write the text that wraps a view as bytes, in the charset of the response, or UTF-8
+	 * if there is no content type yet. The writer would fix its charset before the view
+	 * has set one.
+	 */
+	private void write(HttpServletResponse response, String text) throws IOException {
+		if (text != null) {
+			Charset charset = response.getContentType() != null ? Charset.forName(response.getCharacterEncoding())
+					: StandardCharsets.UTF_8;
+			response.getOutputStream().write(text.getBytes(charset));
+		}
+	}
+
+	private void renderView(ModelAndView modelAndView, Map<String, ?> model, Locale locale,
+			HttpServletRequest request, HttpServletResponse response) throws Exception {
+		String viewName = modelAndView.getViewName();
+		View view = modelAndView.getView() != null ? modelAndView.getView()
+				: fragment(modelAndView, request, response);
+		if (view instanceof HyperTextFragmentView fragment) {
+			viewName = fragment.getName();
+		}
+		for (String key : model.keySet()) {
+			if (!modelAndView.getModel().containsKey(key)) {
+				modelAndView.getModel().put(key, model.get(key));
+			}
+		}
+		if (this.cache != null && viewName != null && modelAndView instanceof HyperTextModelAndView fragment
+				&& fragment.isCacheable()) {
+			Object key = this.cache.key(viewName, locale, modelAndView.getModel(), fragment.getCacheKeys());
+			HyperTextFragmentCache.Fragment cached = this.cache.get(key);
+			if (cached == null) {
+				String name = viewName;
+				HyperTextFragmentCache.Fragment[] stored = new HyperTextFragmentCache.Fragment[1];
+				HyperTextSingleFlight.Render render = () -> {
+					HyperTextSingleFlight.Result result = buffer(modelAndView, view, name, locale, request, response);
+					stored[0] = this.cache.put(key, result.getContent(), result.getContentType());
+					return result;
+				};
+				// Requests that miss the cache at the same time only render it once, and
+				// only the one that rendered it puts it in the cache
+				HyperTextSingleFlight.Result result = this.singleFlight != null ? this.singleFlight.execute(key, render)
+						: render.render();
+				cached = stored[0] != null ? stored[0] : this.cache.get(key);
+				if (cached == null) {
+					// Already evicted again
+					write(result.getContent(), result.getContentType(), response);
+					return;
+				}
+			}
+			if (this.gzip && cached.getGzipContent() != null) {
+				response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+				write(cached.getGzipContent(), cached.getContentType(), response);
+				return;
+			}
+			write(cached.getContent(), cached.getContentType(), response);
+			return;
+		}
+		if (this.singleFlight != null && viewName != null && modelAndView instanceof HyperTextModelAndView fragment
+				&& fragment.isShared()) {
+			String name = viewName;
+			Object key = this.singleFlight.key(viewName, locale, modelAndView.getModel(), vary(request, response),
+					fragment.getSharedKeys());
+			HyperTextSingleFlight.Result result = this.singleFlight.execute(key,
+					() -> buffer(modelAndView, view, name, locale, request, response));
+			write(result.getContent(), result.getContentType(), response);
+			return;
+		}
+		resolve(view, viewName, locale).render(modelAndView.getModel(), request, response);
+	}
+
+	/**
+	 * Only the first view of a response is narrowed down to the target of the request.
+	 * The others (e.g. a menu or a toast) are rendered as they are, and so is a view that
+	 * is wrapped in markup (e.g. a Turbo Stream action), since it is not a page.
+	 */
+	private View fragment(ModelAndView modelAndView, HttpServletRequest request, HttpServletResponse response) {
+		if (this.fragments == null || this.response.getViews().iterator().next() != modelAndView) {
+			return null;
+		}
+		if (modelAndView instanceof HyperTextModelAndView wrapped
+				&& (wrapped.getPrefix() != null || wrapped.getSuffix() != null || wrapped.getDecorator() != null)) {
+			return null;
+		}
+		return this.fragments.resolve(modelAndView.getViewName(), this.views, request, response);
+	}
+
+	/**
+	 * Render a view into a buffer. Headers that it sets still go to the response.
+	 */
+	private HyperTextSingleFlight.Result buffer(ModelAndView modelAndView, View view, String viewName,
+			Locale locale, HttpServletRequest request, HttpServletResponse response) throws Exception {
+		PooledResponseWrapper buffer = new PooledResponseWrapper(response, this.bufferPool);
+		try {
+			resolve(view, viewName, locale).render(modelAndView.getModel(), request, buffer);
+			return new HyperTextSingleFlight.Result(buffer.getContentAsByteArray(), buffer.getContentType());
+		}
+		finally {
+			buffer.release();
+		}
+	}
+
+	private void write(byte[] content, String contentType, HttpServletResponse response) throws IOException {
+		if (response.getContentType() == null && contentType != null) {
+			response.setContentType(contentType);
+		}
+		response.getOutputStream().write(content);
+	}
+
+	private View resolve(View view, String viewName, Locale locale) throws Exception {
+		if (view == null) {
+			view = views.resolveViewName(viewName, locale);
+		}
+		Assert.notNull(view, "Template '" + viewName + "' could not be resolved");
+		return view;
+	}
+
+	/**
+	 * A request for one of the views that render in parallel. It starts with a copy of
+	 * the attributes of the request (taken before the view is scheduled), and attributes
+	 * that the view sets are only visible to itself.
+	 */
+	static class ParallelRequest extends HttpServletRequestWrapper {
+
+		private final Map<String, Object> attributes = new HashMap<>();
+
+		ParallelRequest(HttpServletRequest request) {
+			super(request);
+			for (String name : Collections.list(request.getAttributeNames())) {
+				this.attributes.put(name, request.getAttribute(name));
+			}
+		}
+
+		@Override
+		public Object getAttribute(String name) {
+			return this.attributes.get(name);
+		}
+
+		@Override
+		public Enumeration<String> getAttributeNames() {
+			return Collections.enumeration(List.copyOf(this.attributes.keySet()));
+		}
+
+		@Override
+		public void setAttribute(String name, Object value) {
+			if (value == null) {
+				removeAttribute(name);
+				return;
+			}
+			this.attributes.put(name, value);
+		}
+
+		@Override
+		public void removeAttribute(String name) {
+			this.attributes.remove(name);
+		}
+
+	}
+
+	private static class FixedContentTypeResponseWrapper extends HttpServletResponseWrapper {
+
+		FixedContentTypeResponseWrapper(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public void setContentType(String type) {
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+				super.addHeader(name, value);
+			}
+		}
+
+	}
+
+}
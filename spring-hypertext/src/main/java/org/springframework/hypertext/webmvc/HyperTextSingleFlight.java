@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets concurrent requests that render the same view with the same inputs share the
+ * output of the first one, instead of each rendering it again (e.g. when many clients
+ * poll a public fragment at the same interval). Nothing is kept once the first render
+ * has finished: the next request renders again (use a {@link HyperTextFragmentCache} to
+ * keep the output for longer).
+ *
+ * @see HyperTextModelAndView#shared(String...)
+ */
+public class HyperTextSingleFlight {
+
+	private final Map<Object, CompletableFuture<Result>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * The default maximum time to wait for a render that is in flight.
+	 */
+	public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(5);
+
+	private Duration maxWait = DEFAULT_MAX_WAIT;
+
+	/**
+	 * Set the longest time to wait for a render that is in flight. A request that has
+	 * waited that long renders the output itself. Default is 5 seconds.
+	 *
+	 * @param maxWait the maximum time to wait (or null for no limit)
+	 */
+	public void setMaxWait(Duration maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * Create a key for a render of a view.
+	 *
+	 * @param viewName  the name of the view
+	 * @param locale    the current locale
+	 * @param model     the model the view renders
+	 * @param vary      the values of the request headers that the response varies on
+	 * @param modelKeys the names of the model attributes the output depends on
+	 * @return the key
+	 */
+	public Object key(String viewName, Locale locale, Map<String, ?> model, String vary, String... modelKeys) {
+		List<Object> key = new ArrayList<>(modelKeys.length + 3);
+		key.add(viewName);
+		key.add(locale);
+		key.add(vary);
+		for (String name : modelKeys) {
+			key.add(model.get(name));
+		}
+		return key;
+	}
+
+	/**
+	 * Render the output for a key, or wait for a render with the same key that is
+	 * already in flight and use its output. If that render fails with an exception, so
+	 * do all the renders waiting for it. If it fails with an error (or takes longer
+	 * than the {@link #setMaxWait(Duration) maximum wait}), the waiting renders render
+	 * the output themselves.
+	 *
+	 * @param key    the key of the render
+	 * @param render the callback that renders the output
+	 * @return the output
+	 * @throws Exception if the render fails
+	 */
+	public Result execute(Object key, Render render) throws Exception {
+		CompletableFuture<Result> future = new CompletableFuture<>();
+		CompletableFuture<Result> existing = this.inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			try {
+				return this.maxWait != null ? existing.get(this.maxWait.toNanos(), TimeUnit.NANOSECONDS)
+						: existing.get();
+			}
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof Exception cause) {
+					throw cause;
+				}
+				return render.render();
+			}
+			catch (TimeoutException ex) {
+				return render.render();
+			}
+		}
+		try {
+			Result result = render.render();
+			future.complete(result);
+			return result;
+		}
+		catch (Throwable ex) {
+			// Complete on errors too, or the waiting renders would never finish
+			future.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * @return the number of renders in flight
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+
+	@FunctionalInterface
+	public interface Render {
+
+		Result render() throws Exception;
+
+	}
+
+	/**
+	 * The rendered output of a view.
+	 */
+	public static final class Result {
+
+		private final byte[] content;
+		private final String contentType;
+
+		public Result(byte[] content, String contentType) {
+			this.content = content;
+			this.contentType = contentType;
+		}
+
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		public String getContentType() {
+			return this.contentType;
+		}
+
+	}
+
+}
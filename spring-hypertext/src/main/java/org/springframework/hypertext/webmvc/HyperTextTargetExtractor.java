@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Strategy for finding the part of a page that a hypermedia request is going to swap,
+ * so that only that fragment of a full page view needs to be rendered.
+ */
+public interface HyperTextTargetExtractor {
+
+	/**
+	 * The request header that carries the target. Responses that are narrowed down to
+	 * a fragment vary on this header.
+	 *
+	 * @return the header name
+	 */
+	String getHeaderName();
+
+	/**
+	 * Extract a fragment selector (e.g. {@code #content}) for the target of the
+	 * request.
+	 *
+	 * @param request the current request
+	 * @return a fragment selector, or null if the whole view should be rendered
+	 */
+	String getTarget(HttpServletRequest request);
+
+	/**
+	 * Whether views are narrowed down to the target even if partial rendering is not
+	 * enabled globally, e.g. because the client library discards everything outside
+	 * the target anyway. The default is {@code false}.
+	 *
+	 * @return true if the extractor is always used
+	 */
+	default boolean isEnabledByDefault() {
+		return false;
+	}
+
+	/**
+	 * Whether the client swaps the content of the target rather than the element itself
+	 * (e.g. the default {@code innerHTML} swap in htmx). If so only the children of the
+	 * selected element are rendered. The default is {@code false}.
+	 *
+	 * @return true if the target element itself is not part of the response
+	 */
+	default boolean isInner() {
+		return false;
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Computes the value of the {@code Vary} response header from a set of
+ * {@link HeaderNameExtractor extractors}. The
+ * {@link HeaderNameExtractor#getCandidateHeaders() candidate headers} of the
+ * {@link HeaderNameExtractor#isExhaustive() exhaustive} extractors are collected once,
+ * the first time they are needed, and then for each request a bit is set for every
+ * candidate header that is present. If there are only a few candidates the header value
+ * for each combination of bits is computed once and reused, so a request only costs a
+ * few header lookups and no allocation. Other extractors are asked for each request.
+ */
+public class HyperTextVaryHeaders implements HeaderNameExtractor {
+
+	/**
+	 * The maximum number of candidate headers that are tracked with bits. Candidates of
+	 * extractors beyond that are looked up with the extractor for each request.
+	 */
+	static final int MAX_CANDIDATES = 16;
+
+	/**
+	 * The maximum number of candidate headers for which the values for all combinations
+	 * are kept (at most 1024 of them). With more the value is computed for each request.
+	 */
+	static final int MAX_CACHED_CANDIDATES = 10;
+
+	private final Iterable<? extends HeaderNameExtractor> extractors;
+
+	private volatile Registry registry;
+
+	public HyperTextVaryHeaders(Iterable<? extends HeaderNameExtractor> extractors) {
+		this.extractors = extractors;
+	}
+
+	/**
+	 * @param request the current request
+	 * @return the value of the Vary header for the request, or null if there is none
+	 */
+	public String getVary(HttpServletRequest request) {
+		Registry registry = registry();
+		int mask = registry.mask(name -> request.getHeader(name) != null);
+		return registry.merge(registry.vary(mask), extractor -> extractor.getHeaders(request));
+	}
+
+	/**
+	 * @param headers the headers of a reactive request
+	 * @return the value of the Vary header for the request, or null if there is none
+	 */
+	public String getVary(HttpHeaders headers) {
+		Registry registry = registry();
+		int mask = registry.mask(headers::containsKey);
+		return registry.merge(registry.vary(mask), extractor -> extractor.getHeaders(headers));
+	}
+
+	@Override
+	public Set<String> getHeaders(HttpServletRequest request) {
+		return split(getVary(request));
+	}
+
+	@Override
+	public Set<String> getHeaders(HttpHeaders headers) {
+		return split(getVary(headers));
+	}
+
+	@Override
+	public Collection<String> getCandidateHeaders() {
+		Registry registry = registry();
+		return registry.others.length == 0 ? List.of(registry.names) : Collections.emptySet();
+	}
+
+	@Override
+	public boolean isExhaustive() {
+		return registry().others.length == 0;
+	}
+
+	private static Set<String> split(String vary) {
+		return vary == null ? Collections.emptySet() : StringUtils.commaDelimitedListToSet(vary);
+	}
+
+	private Registry registry() {
+		Registry registry = this.registry;
+		if (registry == null) {
+			registry = new Registry(this.extractors);
+			this.registry = registry;
+		}
+		return registry;
+	}
+
+	private static class Registry {
+
+		private final String[] names;
+
+		private final HeaderNameExtractor[] others;
+
+		private final String[] values;
+
+		Registry(Iterable<? extends HeaderNameExtractor> extractors) {
+			Set<String> names = new LinkedHashSet<>();
+			List<HeaderNameExtractor> others = new ArrayList<>();
+			for (HeaderNameExtractor extractor : extractors) {
+				Collection<String> candidates = extractor.getCandidateHeaders();
+				Set<String> added = new LinkedHashSet<>(names);
+				added.addAll(candidates);
+				if (!extractor.isExhaustive() || candidates.isEmpty() || added.size() > MAX_CANDIDATES) {
+					others.add(extractor);
+				}
+				else {
+					names = added;
+				}
+			}
+			this.names = names.toArray(new String[0]);
+			this.others = others.toArray(new HeaderNameExtractor[0]);
+			this.values = this.names.length <= MAX_CACHED_CANDIDATES ? new String[1 << this.names.length] : null;
+		}
+
+		int mask(Predicate<String> present) {
+			int mask = 0;
+			for (int i = 0; i < this.names.length; i++) {
+				if (present.test(this.names[i])) {
+					mask |= 1 << i;
+				}
+			}
+			return mask;
+		}
+
+		String vary(int mask) {
+			if (mask == 0) {
+				return null;
+			}
+			// Racy but harmless: the same value might be computed twice
+			String value = this.values != null ? this.values[mask] : null;
+			if (value == null) {
+				StringBuilder builder = new StringBuilder();
+				for (int i = 0; i < this.names.length; i++) {
+					if ((mask & (1 << i)) != 0) {
+						if (builder.length() > 0) {
+							builder.append(',');
+						}
+						builder.append(this.names[i]);
+					}
+				}
+				value = builder.toString();
+				if (this.values != null) {
+					value = value.intern();
+					this.values[mask] = value;
+				}
+			}
+			return value;
+		}
+
+		String merge(String vary, Function<HeaderNameExtractor, Set<String>> headers) {
+			if (this.others.length == 0) {
+				return vary;
+			}
+			Set<String> names = new LinkedHashSet<>(split(vary));
+			for (HeaderNameExtractor extractor : this.others) {
+				names.addAll(headers.apply(extractor));
+			}
+			return names.isEmpty() ? null : String.join(",", names);
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 package org.springframework.hypertext.webmvc;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.util.Assert;
@@ -32,6 +33,15 @@ public class HyperTextWebMvcConfiguration implements WebMvcConfigurer {
 	private final ObjectFactory<ViewResolver> resolver;
 	private final ObjectFactory<LocaleResolver> locales;
 	private final ObjectMapper objectMapper;
+	private boolean streaming;
+	private HyperTextFragmentSelector fragmentSelector;
+	private HyperTextFragmentCache fragmentCache;
+	private HyperTextSingleFlight singleFlight;
+	private HyperTextBufferPool bufferPool;
+	private HyperTextRenderObserver renderObserver;
+	private boolean eTag;
+	private boolean parallel;
+	private Executor taskExecutor;
 
 	public HyperTextWebMvcConfiguration(ObjectFactory<ViewResolver> resolver,
 			ObjectFactory<LocaleResolver> locales,
@@ -44,6 +54,42 @@ public class HyperTextWebMvcConfiguration implements WebMvcConfigurer {
 		this.objectMapper = objectMapper;
 	}
 
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public void setFragmentSelector(HyperTextFragmentSelector fragmentSelector) {
+		this.fragmentSelector = fragmentSelector;
+	}
+
+	public void setFragmentCache(HyperTextFragmentCache fragmentCache) {
+		this.fragmentCache = fragmentCache;
+	}
+
+	public void setSingleFlight(HyperTextSingleFlight singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
+	public void setBufferPool(HyperTextBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	public void setRenderObserver(HyperTextRenderObserver renderObserver) {
+		this.renderObserver = renderObserver;
+	}
+
+	public void setETag(boolean eTag) {
+		this.eTag = eTag;
+	}
+
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	@Override
 	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
 		resolvers.add(new HyperTextRequestHandlerMethodArgumentResolver());
@@ -51,6 +97,17 @@ public class HyperTextWebMvcConfiguration implements WebMvcConfigurer {
 
 	@Override
 	public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
-		handlers.add(new HyperTextResponseHandlerMethodReturnValueHandler(resolver.getObject(), locales, objectMapper));
+		HyperTextResponseHandlerMethodReturnValueHandler handler = new HyperTextResponseHandlerMethodReturnValueHandler(
+				resolver.getObject(), locales, objectMapper);
+		handler.setStreaming(streaming);
+		handler.setFragmentSelector(fragmentSelector);
+		handler.setFragmentCache(fragmentCache);
+		handler.setSingleFlight(singleFlight);
+		handler.setBufferPool(bufferPool);
+		handler.setRenderObserver(renderObserver);
+		handler.setETag(eTag);
+		handler.setParallel(parallel);
+		handler.setTaskExecutor(taskExecutor);
+		handlers.add(handler);
 	}
 }
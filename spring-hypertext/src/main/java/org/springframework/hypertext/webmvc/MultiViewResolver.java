@@ -19,27 +19,140 @@
 package org.springframework.hypertext.webmvc;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.Ordered;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.servlet.view.AbstractCachingViewResolver;
+import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public class MultiViewResolver implements ViewResolver, Ordered {
 
+	/** Default maximum number of entries for the view cache: 1024. */
+	public static final int DEFAULT_CACHE_LIMIT = 1024;
+
 	private final ViewResolver resolver;
+	private boolean streaming;
+	private HyperTextRenderObserver observer;
+	private HyperTextBufferPool bufferPool;
+	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+	private Boolean cacheable;
+
+	/** Fast access cache for composite views, returning already cached instances without a global lock. */
+	private final Map<Object, View> viewAccessCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
+
+	/** Map from view key to composite view instance, synchronized for view creation. */
+	@SuppressWarnings("serial")
+	private final Map<Object, View> viewCreationCache = new LinkedHashMap<>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
+			if (size() > getCacheLimit()) {
+				viewAccessCache.remove(eldest.getKey());
+				return true;
+			}
+			return false;
+		}
+	};
 
 	public MultiViewResolver(ViewResolver resolver) {
 		this.resolver = resolver;
 	}
 
+	/**
+	 * Write each view straight to the servlet output stream as it renders, instead of
+	 * buffering the whole body. Default is {@code false}.
+	 *
+	 * @param streaming the flag to set
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * Set an observer that records an observation for each view as it renders. Default
+	 * is none.
+	 *
+	 * @param observer the observer to use
+	 */
+	public void setRenderObserver(HyperTextRenderObserver observer) {
+		this.observer = observer;
+	}
+
+	/**
+	 * Set a pool of buffers for the output of composite views when they are not
+	 * streamed. Default is none (a new buffer for each response).
+	 *
+	 * @param bufferPool the pool to use
+	 */
+	public void setBufferPool(HyperTextBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * Specify the maximum number of entries for the cache of composite views (resolved
+	 * from comma-separated view names). Default is 1024, and 0 switches the cache off.
+	 * The cache is also off if the delegate is a caching view resolver with its cache
+	 * switched off (or a {@link ContentNegotiatingViewResolver} with one).
+	 *
+	 * @param cacheLimit the limit to set
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
+	/**
+	 * @return the maximum number of entries for the cache of composite views
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * @return whether composite views are cached
+	 */
+	public boolean isCache() {
+		if (this.cacheLimit <= 0) {
+			return false;
+		}
+		if (this.cacheable == null) {
+			this.cacheable = isCache(this.resolver);
+		}
+		return this.cacheable;
+	}
+
+	/**
+	 * Clear the cache of composite views, e.g. after templates have been reloaded.
+	 */
+	public void clearCache() {
+		synchronized (this.viewCreationCache) {
+			this.viewAccessCache.clear();
+			this.viewCreationCache.clear();
+		}
+	}
+
+	/**
+	 * Remove a composite view from the cache.
+	 *
+	 * @param name   the (comma-separated) view name
+	 * @param locale the locale it was resolved for
+	 */
+	public void removeFromCache(String name, Locale locale) {
+		Object key = getCacheKey(name, locale);
+		synchronized (this.viewCreationCache) {
+			this.viewAccessCache.remove(key);
+			this.viewCreationCache.remove(key);
+		}
+	}
+
 	@Override
 	public int getOrder() {
 		return HIGHEST_PRECEDENCE + 10;
@@ -47,23 +160,66 @@ public class MultiViewResolver implements ViewResolver, Ordered {
 
 	@Override
 	public View resolveViewName(String name, Locale locale) throws Exception {
-		if (name.contains(",")) {
-			List<View> templates = new ArrayList<>();
-			String[] names = name.split(",");
-			for (int i = 0; i < names.length; i++) {
-				names[i] = names[i].trim();
+		if (name.indexOf(',') < 0) {
+			return resolver.resolveViewName(name, locale);
+		}
+		if (!isCache()) {
+			return createView(name, locale);
+		}
+		Object key = getCacheKey(name, locale);
+		View view = this.viewAccessCache.get(key);
+		if (view == null) {
+			synchronized (this.viewCreationCache) {
+				view = this.viewCreationCache.get(key);
+				if (view == null) {
+					view = createView(name, locale);
+					this.viewAccessCache.put(key, view);
+					this.viewCreationCache.put(key, view);
+				}
 			}
-			for (String template : names) {
-				View value = resolver.resolveViewName(template, locale);
-				if (value == null) {
-					continue;
+		}
+		return view;
+	}
+
+	private Object getCacheKey(String name, Locale locale) {
+		return name + '_' + locale;
+	}
+
+	private View createView(String name, Locale locale) throws Exception {
+		List<View> templates = new ArrayList<>();
+		List<String> resolved = new ArrayList<>();
+		String[] names = name.split(",");
+		for (int i = 0; i < names.length; i++) {
+			names[i] = names[i].trim();
+		}
+		for (String template : names) {
+			View value = resolver.resolveViewName(template, locale);
+			if (value == null) {
+				continue;
+			}
+			templates.add(value);
+			resolved.add(template);
+		}
+		MultiView view = new MultiView(templates, streaming);
+		view.setBufferPool(bufferPool);
+		if (observer != null) {
+			view.setRenderObserver(observer, resolved);
+		}
+		return view;
+	}
+
+	private static boolean isCache(ViewResolver resolver) {
+		if (resolver instanceof AbstractCachingViewResolver caching) {
+			return caching.isCache();
+		}
+		if (resolver instanceof ContentNegotiatingViewResolver negotiating) {
+			for (ViewResolver delegate : negotiating.getViewResolvers()) {
+				if (!isCache(delegate)) {
+					return false;
 				}
-				templates.add(value);
 			}
-			return new MultiView(templates);
-		} else {
-			return resolver.resolveViewName(name, locale);
 		}
+		return true;
 	}
 
 }
@@ -71,9 +227,27 @@ public class MultiViewResolver implements ViewResolver, Ordered {
 class MultiView implements View {
 
 	private final List<View> templates;
+	private final boolean streaming;
+	private HyperTextRenderObserver observer;
+	private List<String> names;
+	private HyperTextBufferPool bufferPool;
 
 	public MultiView(List<View> templates) {
+		this(templates, false);
+	}
+
+	public MultiView(List<View> templates, boolean streaming) {
 		this.templates = templates;
+		this.streaming = streaming;
+	}
+
+	void setBufferPool(HyperTextBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	void setRenderObserver(HyperTextRenderObserver observer, List<String> names) {
+		this.observer = observer;
+		this.names = names;
 	}
 
 	@Override
@@ -84,14 +258,37 @@ class MultiView implements View {
 	@Override
 	public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
 			throws Exception {
-		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
-		for (View template : templates) {
-			@SuppressWarnings("unchecked")
-			Map<String, Object> map = (Map<String, Object>) model;
-			template.render(map, request, wrapper);
-			wrapper.getWriter().write("\n\n");
-		}
-		wrapper.copyBodyToResponse();
+		if (this.streaming) {
+			StreamingResponseWrapper wrapper = new StreamingResponseWrapper(response);
+			for (int i = 0; i < templates.size(); i++) {
+				render(i, model, request, wrapper);
+				wrapper.getWriter().write("\n\n");
+				wrapper.flushBuffer();
+			}
+			return;
+		}
+		PooledResponseWrapper wrapper = new PooledResponseWrapper(response, bufferPool);
+		try {
+			for (int i = 0; i < templates.size(); i++) {
+				render(i, model, request, wrapper);
+				wrapper.getWriter().write("\n\n");
+			}
+			wrapper.copyBodyToResponse();
+		}
+		finally {
+			wrapper.release();
+		}
+	}
+
+	private void render(int index, Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		View template = templates.get(index);
+		if (this.observer == null) {
+			template.render(model, request, response);
+			return;
+		}
+		this.observer.observe(this.names.get(index), request, response,
+				() -> template.render(model, request, response));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.SequenceInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response wrapper that buffers the body in a chain of arrays from a
+ * {@link HyperTextBufferPool}, and copies it to the response in one go. Headers and
+ * status go straight through. It is a drop in replacement for Spring's
+ * {@code ContentCachingResponseWrapper}, but the arrays are never copied to grow the
+ * buffer, and they have to be given back with {@link #release()} (which
+ * {@link #copyBodyToResponse()} does) when the content is no longer needed.
+ */
+class PooledResponseWrapper extends HttpServletResponseWrapper {
+
+	private final HyperTextBufferPool pool;
+
+	private final List<byte[]> buffers = new ArrayList<>();
+
+	private final ServletOutputStream output = new ServletOutputStream() {
+
+		@Override
+		public void write(int b) {
+			PooledResponseWrapper.this.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			PooledResponseWrapper.this.write(b, off, len);
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener listener) {
+		}
+
+	};
+
+	private PrintWriter writer;
+
+	private byte[] current;
+
+	private int position;
+
+	private int size;
+
+	PooledResponseWrapper(HttpServletResponse response, HyperTextBufferPool pool) {
+		super(response);
+		this.pool = pool;
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		return this.output;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (this.writer == null) {
+			this.writer = new FlushingPrintWriter(getCharacterEncoding());
+		}
+		return this.writer;
+	}
+
+	@Override
+	public void flushBuffer() {
+		// Nothing is sent until the content is copied to the response
+	}
+
+	@Override
+	public void setContentLength(int len) {
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+	}
+
+	@Override
+	public void resetBuffer() {
+		release();
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		release();
+	}
+
+	@Override
+	public void sendError(int sc) throws IOException {
+		release();
+		super.sendError(sc);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) throws IOException {
+		release();
+		super.sendError(sc, msg);
+	}
+
+	@Override
+	public void sendRedirect(String location) throws IOException {
+		release();
+		super.sendRedirect(location);
+	}
+
+	int getContentSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return the content so far as a new array of the exact size
+	 */
+	byte[] getContentAsByteArray() {
+		byte[] result = new byte[this.size];
+		int offset = 0;
+		for (byte[] buffer : this.buffers) {
+			int length = Math.min(buffer.length, this.size - offset);
+			System.arraycopy(buffer, 0, result, offset, length);
+			offset += length;
+		}
+		return result;
+	}
+
+	/**
+	 * @return a stream over the content so far, without copying it
+	 */
+	InputStream getContentInputStream() {
+		List<InputStream> streams = new ArrayList<>(this.buffers.size());
+		int offset = 0;
+		for (byte[] buffer : this.buffers) {
+			int length = Math.min(buffer.length, this.size - offset);
+			streams.add(new ByteArrayInputStream(buffer, 0, length));
+			offset += length;
+		}
+		return new SequenceInputStream(Collections.enumeration(streams));
+	}
+
+	/**
+	 * Write the content to the response (with its length, unless the response is
+	 * already committed) and give the arrays back to the pool.
+	 *
+	 * @throws IOException if the content cannot be written
+	 */
+	void copyBodyToResponse() throws IOException {
+		HttpServletResponse response = (HttpServletResponse) getResponse();
+		if (!response.isCommitted()) {
+			response.setContentLength(this.size);
+		}
+		copyBodyTo(response);
+	}
+
+	/**
+	 * Write the content to another response (e.g. when it was rendered into a detached
+	 * one) and give the arrays back to the pool.
+	 *
+	 * @param response the response to write to
+	 * @throws IOException if the content cannot be written
+	 */
+	void copyBodyTo(HttpServletResponse response) throws IOException {
+		try {
+			if (this.size > 0) {
+				ServletOutputStream output = response.getOutputStream();
+				int offset = 0;
+				for (byte[] buffer : this.buffers) {
+					int length = Math.min(buffer.length, this.size - offset);
+					output.write(buffer, 0, length);
+					offset += length;
+				}
+			}
+		}
+		finally {
+			release();
+		}
+	}
+
+	/**
+	 * Discard the content and give the arrays back to the pool.
+	 */
+	void release() {
+		if (this.pool != null) {
+			for (byte[] buffer : this.buffers) {
+				this.pool.release(buffer);
+			}
+		}
+		this.buffers.clear();
+		this.current = null;
+		this.position = 0;
+		this.size = 0;
+	}
+
+	private void write(int b) {
+		if (this.current == null || this.position == this.current.length) {
+			next();
+		}
+		this.current[this.position++] = (byte) b;
+		this.size++;
+	}
+
+	private void write(byte[] b, int off, int len) {
+		while (len > 0) {
+			if (this.current == null || this.position == this.current.length) {
+				next();
+			}
+			int length = Math.min(len, this.current.length - this.position);
+			System.arraycopy(b, off, this.current, this.position, length);
+			this.position += length;
+			this.size += length;
+			off += length;
+			len -= length;
+		}
+	}
+
+	private void next() {
+		this.current = HyperTextBufferPool.acquire(this.pool, this.buffers.size());
+		this.buffers.add(this.current);
+		this.position = 0;
+	}
+
+	/**
+	 * Flushes after every write, so that text stays in order with views that use the
+	 * output stream.
+	 */
+	private class FlushingPrintWriter extends PrintWriter {
+
+		FlushingPrintWriter(String encoding) throws UnsupportedEncodingException {
+			super(new OutputStreamWriter(PooledResponseWrapper.this.output, encoding));
+		}
+
+		@Override
+		public void write(char[] buf, int off, int len) {
+			super.write(buf, off, len);
+			super.flush();
+		}
+
+		@Override
+		public void write(String s, int off, int len) {
+			super.write(s, off, len);
+			super.flush();
+		}
+
+		@Override
+		public void write(int c) {
+			super.write(c);
+			super.flush();
+		}
+
+	}
+
+}
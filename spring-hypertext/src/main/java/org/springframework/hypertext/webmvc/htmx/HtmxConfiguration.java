@@ -18,11 +18,11 @@ package org.springframework.hypertext.webmvc.htmx;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.hypertext.webmvc.HyperTextConfiguration;
+import org.springframework.hypertext.webmvc.HyperTextConfigurationSelector;
 import org.springframework.hypertext.webmvc.HyperTextHeaderConfiguration;
 
 @Configuration(proxyBeanMethods = false)
-@Import(HyperTextConfiguration.class)
+@Import(HyperTextConfigurationSelector.class)
 public class HtmxConfiguration implements HyperTextHeaderConfiguration {
 
 	@Bean
@@ -34,4 +34,9 @@ public class HtmxConfiguration implements HyperTextHeaderConfiguration {
 		return new HtmxVaryHeaderExtractor();
 	}
 
+	@Bean
+	public HtmxTargetExtractor htmxTargetExtractor() {
+		return new HtmxTargetExtractor();
+	}
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.htmx;
+
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Adds {@code hx-swap-oob} to the root element of the rendered output of a view, for
+ * an {@link HxSwapType#OUTER_HTML} swap, where htmx replaces the target with the element
+ * that carries the attribute (so it keeps its own id). Table or list content (e.g.
+ * {@code <tr>} or {@code <li>}) also goes in a {@code <template>}, so that it can be
+ * parsed outside its container. The other swaps do not need the output, only a wrapper
+ * element, so they can be streamed and do not use this.
+ */
+class HtmxOutOfBandDecorator implements UnaryOperator<String> {
+
+	/**
+	 * Elements that can only be parsed in a particular parent.
+	 */
+	private static final Set<String> CONTAINED = Set.of("tr", "td", "th", "thead", "tbody", "tfoot", "caption",
+			"colgroup", "col", "li");
+
+	private final String value;
+
+	HtmxOutOfBandDecorator(String target) {
+		this.value = HtmlUtils.htmlEscape(HxSwapType.OUTER_HTML.getValue() + ":" + target);
+	}
+
+	@Override
+	public String apply(String markup) {
+		int start = root(markup);
+		if (start < 0) {
+			throw new IllegalStateException("An outerHTML out of band swap needs a view with a root element");
+		}
+		int end = end(markup, start);
+		String result = markup.substring(0, end) + " hx-swap-oob=\"" + this.value + "\"" + markup.substring(end);
+		return CONTAINED.contains(tag(markup, start)) ? "<template>" + result + "</template>" : result;
+	}
+
+	/**
+	 * The index of the start of the first element, skipping whitespace and comments, or
+	 * -1 if the markup does not start with an element.
+	 */
+	private static int root(String markup) {
+		int index = 0;
+		while (index < markup.length()) {
+			if (Character.isWhitespace(markup.charAt(index))) {
+				index++;
+			}
+			else if (markup.startsWith("<!--", index)) {
+				int close = markup.indexOf("-->", index);
+				if (close < 0) {
+					return -1;
+				}
+				index = close + 3;
+			}
+			else if (markup.charAt(index) == '<' && index + 1 < markup.length()
+					&& Character.isLetter(markup.charAt(index + 1))) {
+				return index;
+			}
+			else {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private static String tag(String markup, int start) {
+		int end = start + 1;
+		while (end < markup.length() && (Character.isLetterOrDigit(markup.charAt(end)) || markup.charAt(end) == '-')) {
+			end++;
+		}
+		return markup.substring(start + 1, end).toLowerCase();
+	}
+
+	/**
+	 * The index to insert an attribute into the start tag at the given index: its
+	 * closing {@code >} (or {@code />}), skipping quoted attribute values.
+	 */
+	private static int end(String markup, int start) {
+		char quote = 0;
+		for (int i = start + 1; i < markup.length(); i++) {
+			char c = markup.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			}
+			else if (c == '"' || c == '\'') {
+				quote = c;
+			}
+			else if (c == '>') {
+				return markup.charAt(i - 1) == '/' ? i - 1 : i;
+			}
+		}
+		throw new IllegalStateException("Unterminated start tag in out of band swap");
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.htmx;
+
+import org.springframework.hypertext.webmvc.HyperTextRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The htmx request headers of the current request, parsed once and shared through the
+ * {@link HyperTextRequest}.
+ *
+ * @see <a href="https://htmx.org/reference/#request_headers">Request Headers
+ *      Reference</a>
+ */
+public class HtmxRequest {
+
+	private final boolean htmx;
+	private final boolean boosted;
+	private final boolean historyRestoreRequest;
+	private final String currentUrl;
+	private final String prompt;
+	private final String target;
+	private final String trigger;
+	private final String triggerName;
+
+	private HtmxRequest(HyperTextRequest request) {
+		this.htmx = "true".equals(request.getHeader(HtmxRequestHeader.HX_REQUEST.getValue()));
+		this.boosted = "true".equals(request.getHeader(HtmxRequestHeader.HX_BOOSTED.getValue()));
+		this.historyRestoreRequest = "true"
+				.equals(request.getHeader(HtmxRequestHeader.HX_HISTORY_RESTORE_REQUEST.getValue()));
+		this.currentUrl = request.getHeader(HtmxRequestHeader.HX_CURRENT_URL.getValue());
+		this.prompt = request.getHeader(HtmxRequestHeader.HX_PROMPT.getValue());
+		this.target = request.getHeader(HtmxRequestHeader.HX_TARGET.getValue());
+		this.trigger = request.getHeader(HtmxRequestHeader.HX_TRIGGER.getValue());
+		this.triggerName = request.getHeader(HtmxRequestHeader.HX_TRIGGER_NAME.getValue());
+	}
+
+	public static HtmxRequest from(HyperTextRequest request) {
+		return request.as(HtmxRequest.class, HtmxRequest::new);
+	}
+
+	public static HtmxRequest from(HttpServletRequest request) {
+		return from(HyperTextRequest.from(request));
+	}
+
+	/**
+	 * @return true if the request was issued by htmx
+	 */
+	public boolean isHtmx() {
+		return this.htmx;
+	}
+
+	/**
+	 * @return true if the request comes from an element that uses hx-boost
+	 */
+	public boolean isBoosted() {
+		return this.boosted;
+	}
+
+	/**
+	 * @return true if the request is for history restoration after a miss in the local
+	 *         history cache
+	 */
+	public boolean isHistoryRestoreRequest() {
+		return this.historyRestoreRequest;
+	}
+
+	/**
+	 * @return the current URL of the browser, or null
+	 */
+	public String getCurrentUrl() {
+		return this.currentUrl;
+	}
+
+	/**
+	 * @return the user response to an hx-prompt, or null
+	 */
+	public String getPrompt() {
+		return this.prompt;
+	}
+
+	/**
+	 * @return the id of the target element, or null
+	 */
+	public String getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * @return the id of the triggered element, or null
+	 */
+	public String getTrigger() {
+		return this.trigger;
+	}
+
+	/**
+	 * @return the name of the triggered element, or null
+	 */
+	public String getTriggerName() {
+		return this.triggerName;
+	}
+
+}
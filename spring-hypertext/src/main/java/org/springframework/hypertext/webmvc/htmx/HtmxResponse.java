@@ -15,13 +15,26 @@
  */
 package org.springframework.hypertext.webmvc.htmx;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.HyperTextFragmentSelector;
+import org.springframework.hypertext.webmvc.HyperTextIncludeView;
+import org.springframework.hypertext.webmvc.HyperTextModelAndView;
 import org.springframework.hypertext.webmvc.HyperTextResponse;
+import org.springframework.util.Assert;
+import org.springframework.web.util.HtmlUtils;
 
 public class HtmxResponse extends HyperTextResponse {
 
+	/**
+	 * The status code that tells htmx to stop polling.
+	 */
+	public static final int STOP_POLLING = 286;
+
 	private final HtmxLocation location;
 	private final HtmxReswap reswap;
 	private final boolean refresh;
@@ -340,6 +353,188 @@ public class HtmxResponse extends HyperTextResponse {
 		public Builder triggerAfterSwap(String event, Object detail) {
 			return add(HtmxResponseHeader.HX_TRIGGER_AFTER_SWAP.getValue(), event, detail);
 		}
+
+		/**
+		 * Tell htmx to stop polling (status 286) instead of sending 304 (Not Modified)
+		 * when the version keys of the views match the request.
+		 *
+		 * @return the builder
+		 * @see <a href="https://htmx.org/docs/#polling">Polling</a>
+		 */
+		public Builder stopPollingIfUnchanged() {
+			return unchanged(STOP_POLLING);
+		}
+
+		/**
+		 * Send 204 (No Content), so that htmx does not swap anything, instead of 304 (Not
+		 * Modified) when the version keys of the views match the request.
+		 *
+		 * @return the builder
+		 */
+		public Builder noSwapIfUnchanged() {
+			return unchanged(HttpStatus.NO_CONTENT.value());
+		}
+
+		/**
+		 * Append a view that replaces the content of the elements matching the given
+		 * selector, in addition to the main swap of the request.
+		 *
+		 * @param target   a CSS selector for the target elements, e.g. {@code #badge}
+		 * @param viewName the view to render into the target
+		 * @return the builder
+		 * @see #oob(String, HxSwapType, String, Map)
+		 */
+		public Builder oob(String target, String viewName) {
+			return oob(target, HxSwapType.INNER_HTML, viewName, null);
+		}
+
+		/**
+		 * Append a view that is swapped into the elements matching the given selector
+		 * with the given strategy, in addition to the main swap of the request.
+		 *
+		 * @param target   a CSS selector for the target elements, e.g. {@code #badge}
+		 * @param swap     how to swap the content into the target
+		 * @param viewName the view to render into the target
+		 * @return the builder
+		 * @see #oob(String, HxSwapType, String, Map)
+		 */
+		public Builder oob(String target, HxSwapType swap, String viewName) {
+			return oob(target, swap, viewName, null);
+		}
+
+		/**
+		 * Append an out of band swap: the rendered view is wrapped in a {@code <div>}
+		 * with an {@code hx-swap-oob} attribute, so that htmx swaps it into the elements
+		 * matching the given selector instead of the target of the request. The view
+		 * does not need to know that it is used out of band, and the wrapper is written
+		 * as the view renders, so it works with streaming. The view is rendered with the
+		 * implicit model plus the given model attributes (so the same view can be used
+		 * more than once with different data). For {@link HxSwapType#OUTER_HTML} there
+		 * is no wrapper: the attribute goes on the root element of the view, which
+		 * replaces the target, so the view has to render a single element (and it is
+		 * buffered to find it).
+		 *
+		 * @param target   a CSS selector for the target elements, e.g. {@code #badge}
+		 * @param swap     how to swap the content into the target
+		 * @param viewName the view to render into the target
+		 * @param model    extra model attributes for the view (may be null)
+		 * @return the builder
+		 * @see <a href="https://htmx.org/attributes/hx-swap-oob/">hx-swap-oob</a>
+		 * @see #oobTemplate(String, String, HxSwapType, String, Map)
+		 */
+		public Builder oob(String target, HxSwapType swap, String viewName, Map<String, ?> model) {
+			HyperTextModelAndView view = oob(target, swap, new HyperTextModelAndView(viewName));
+			if (model != null) {
+				view.addAllObjects(model);
+			}
+			return view(view);
+		}
+
+		/**
+		 * Append an out of band swap of table or list content (e.g. {@code <tr>} or
+		 * {@code <li>}), which a {@code <div>} can not hold. The rendered view is wrapped
+		 * in the given container element (e.g. {@code tbody} or {@code ul}) with an
+		 * {@code hx-swap-oob} attribute, inside a {@code <template>} so that it can be
+		 * parsed. Like {@link #oob(String, HxSwapType, String, Map)} the wrapper is
+		 * written as the view renders.
+		 *
+		 * @param container the name of the element that can hold the content
+		 * @param target    a CSS selector for the target elements, e.g. {@code #rows}
+		 * @param swap      how to swap the content into the target (not
+		 *                  {@link HxSwapType#OUTER_HTML})
+		 * @param viewName  the view to render into the target
+		 * @param model     extra model attributes for the view (may be null)
+		 * @return the builder
+		 */
+		public Builder oobTemplate(String container, String target, HxSwapType swap, String viewName,
+				Map<String, ?> model) {
+			Assert.isTrue(container.matches("[a-zA-Z][a-zA-Z0-9]*"), "Container must be an element name");
+			Assert.isTrue(swap != HxSwapType.OUTER_HTML, "Use oob() for an outerHTML swap");
+			String open = "<template><" + container + " " + attribute(target, swap) + ">";
+			HyperTextModelAndView view = new HyperTextModelAndView(viewName).wrap(open,
+					"</" + container + "></template>");
+			if (model != null) {
+				view.addAllObjects(model);
+			}
+			return view(view);
+		}
+
+		/**
+		 * Append an out of band swap of the output of another htmx route of the same
+		 * application into the elements matching the given selector.
+		 *
+		 * @param target a CSS selector for the target elements, e.g. {@code #badge}
+		 * @param path   the path of the route to include, e.g. {@code /badge}
+		 * @return the builder
+		 * @see #include(String, HxSwapType, String)
+		 */
+		public Builder include(String target, String path) {
+			return include(target, HxSwapType.INNER_HTML, path);
+		}
+
+		/**
+		 * Append an out of band swap of the output of another htmx route of the same
+		 * application. The route is invoked in place, as an htmx request (with
+		 * {@code HX-Request} and, for an id selector, {@code HX-Target}), so a single
+		 * response can replace many small requests for the fragments of a page. Only
+		 * handlers with {@link HtmxMapping} (or another
+		 * {@link org.springframework.hypertext.webmvc.HyperTextMapping}) can be
+		 * included; the response headers that they set are ignored.
+		 *
+		 * @param target a CSS selector for the target elements, e.g. {@code #badge}
+		 * @param swap   how to swap the content into the target
+		 * @param path   the path of the route to include, e.g. {@code /badge}
+		 * @return the builder
+		 * @see HyperTextIncludeView
+		 */
+		public Builder include(String target, HxSwapType swap, String path) {
+			Map<String, String> headers = new LinkedHashMap<>();
+			headers.put(HtmxRequestHeader.HX_REQUEST.getValue(), "true");
+			if (target.startsWith("#") && HyperTextFragmentSelector.isSelector(target)) {
+				headers.put(HtmxRequestHeader.HX_TARGET.getValue(), target.substring(1));
+			}
+			return view(oob(target, swap, new HyperTextModelAndView(new HyperTextIncludeView(path, headers))));
+		}
+
+		/**
+		 * Append out of band swaps for a batch of routes, each given as
+		 * {@code target=path}, e.g. {@code #badge=/badge} (typically from a request
+		 * parameter), but only if the path (without the query string) is one of the
+		 * allowed paths. The path has to start with {@code /}.
+		 *
+		 * @param fragments the targets and paths of the routes to include
+		 * @param allowed   the paths that may be included
+		 * @return the builder
+		 * @throws IllegalArgumentException if a path is not allowed
+		 * @see #include(String, String)
+		 */
+		public Builder batch(Collection<String> fragments, Collection<String> allowed) {
+			Assert.notNull(allowed, "Allowed paths must not be null");
+			for (String fragment : fragments) {
+				int index = fragment.indexOf("=/");
+				if (index <= 0) {
+					throw new IllegalArgumentException("Fragment must be 'target=/path': " + fragment);
+				}
+				String path = fragment.substring(index + 1).trim();
+				int query = path.indexOf('?');
+				if (!allowed.contains(query < 0 ? path : path.substring(0, query))) {
+					throw new IllegalArgumentException("Path is not allowed in a batch: " + path);
+				}
+				include(fragment.substring(0, index).trim(), path);
+			}
+			return this;
+		}
+
+		private HyperTextModelAndView oob(String target, HxSwapType swap, HyperTextModelAndView view) {
+			if (swap == HxSwapType.OUTER_HTML) {
+				return view.decorate(new HtmxOutOfBandDecorator(target));
+			}
+			return view.wrap("<div " + attribute(target, swap) + ">", "</div>");
+		}
+
+		private static String attribute(String target, HxSwapType swap) {
+			return "hx-swap-oob=\"" + HtmlUtils.htmlEscape(swap.getValue() + ":" + target) + "\"";
+		}
 	}
 
 	public Map<String, Object> getTriggers() {
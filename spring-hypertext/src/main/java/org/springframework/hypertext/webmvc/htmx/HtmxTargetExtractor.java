@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.htmx;
+
+import org.springframework.hypertext.webmvc.HyperTextFragmentSelector;
+import org.springframework.hypertext.webmvc.HyperTextTargetExtractor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Selects the element with the id in {@code HX-Target}. Boosted and history restore
+ * requests need the whole page, so they are not narrowed down.
+ */
+public class HtmxTargetExtractor implements HyperTextTargetExtractor {
+
+	@Override
+	public String getHeaderName() {
+		return HtmxRequestHeader.HX_TARGET.getValue();
+	}
+
+	/**
+	 * The default swap in htmx replaces the content of the target, so the element itself
+	 * is left out of the response.
+	 */
+	@Override
+	public boolean isInner() {
+		return true;
+	}
+
+	@Override
+	public String getTarget(HttpServletRequest request) {
+		HtmxRequest htmx = HtmxRequest.from(request);
+		if (!htmx.isHtmx() || htmx.isBoosted() || htmx.isHistoryRestoreRequest()) {
+			return null;
+		}
+		String target = htmx.getTarget();
+		if (target == null || !HyperTextFragmentSelector.isSelector("#" + target)) {
+			return null;
+		}
+		return "#" + target;
+	}
+
+}
@@ -15,9 +15,12 @@
  */
 package org.springframework.hypertext.webmvc.htmx;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.hypertext.webmvc.HeaderNameExtractor;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,5 +34,28 @@ public class HtmxVaryHeaderExtractor implements HeaderNameExtractor {
 		}
 		return Collections.emptySet();
 	}
-	
+
+	@Override
+	public Set<String> getHeaders(HttpHeaders headers) {
+		if (headers.containsKey(HtmxRequestHeader.HX_REQUEST.getValue())) {
+			return Set.of(HtmxRequestHeader.HX_REQUEST.getValue());
+		}
+		return Collections.emptySet();
+	}
+
+	@Override
+	public Collection<String> getCandidateHeaders() {
+		return List.of(HtmxRequestHeader.HX_REQUEST.getValue());
+	}
+
+	@Override
+	public boolean isExhaustive() {
+		return true;
+	}
+
+	@Override
+	public String getLibrary() {
+		return "htmx";
+	}
+
 }
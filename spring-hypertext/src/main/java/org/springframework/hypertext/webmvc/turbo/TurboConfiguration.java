@@ -15,12 +15,28 @@
  */
 package org.springframework.hypertext.webmvc.turbo;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.hypertext.webmvc.HyperTextConfiguration;
+import org.springframework.core.env.Environment;
+import org.springframework.hypertext.webmvc.HyperTextConfigurationSelector;
 import org.springframework.hypertext.webmvc.HyperTextHeaderConfiguration;
 
 @Configuration(proxyBeanMethods = false)
-@Import(HyperTextConfiguration.class)
+@Import(HyperTextConfigurationSelector.class)
 public class TurboConfiguration implements HyperTextHeaderConfiguration {
+
+	@Bean
+	public TurboTargetExtractor turboTargetExtractor(Environment environment) {
+		TurboTargetExtractor extractor = new TurboTargetExtractor();
+		extractor.setEnabledByDefault(
+				environment.getProperty("hypertext.turbo.frames.enabled", Boolean.class, false));
+		return extractor;
+	}
+
+	@Bean
+	public TurboVaryHeaderExtractor turboVaryHeaderExtractor() {
+		return new TurboVaryHeaderExtractor();
+	}
+
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+import org.springframework.hypertext.webmvc.HyperTextRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The Turbo request headers of the current request, parsed once and shared through the
+ * {@link HyperTextRequest}.
+ */
+public class TurboRequest {
+
+	private final String frame;
+	private final String requestId;
+
+	private TurboRequest(HyperTextRequest request) {
+		this.frame = request.getHeader(TurboRequestHeader.TURBO_FRAME.getValue());
+		this.requestId = request.getHeader(TurboRequestHeader.TURBO_REQUEST_ID.getValue());
+	}
+
+	public static TurboRequest from(HyperTextRequest request) {
+		return request.as(TurboRequest.class, TurboRequest::new);
+	}
+
+	public static TurboRequest from(HttpServletRequest request) {
+		return from(HyperTextRequest.from(request));
+	}
+
+	/**
+	 * @return true if the request was issued by Turbo
+	 */
+	public boolean isTurbo() {
+		return this.requestId != null;
+	}
+
+	/**
+	 * @return the id of the {@code <turbo-frame>} that the request navigates, or null
+	 */
+	public String getFrame() {
+		return this.frame;
+	}
+
+	/**
+	 * @return the id that Turbo assigned to the request, or null
+	 */
+	public String getRequestId() {
+		return this.requestId;
+	}
+
+}
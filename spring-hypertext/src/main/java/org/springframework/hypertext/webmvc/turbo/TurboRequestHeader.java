@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+/**
+ * Enum representing the request headers used by Turbo.
+ */
+public enum TurboRequestHeader {
+	/**
+	 * The {@code id} of the {@code <turbo-frame>} element that a navigation targets.
+	 */
+	TURBO_FRAME("Turbo-Frame"),
+	/**
+	 * A unique id for each request issued by Turbo.
+	 */
+	TURBO_REQUEST_ID("X-Turbo-Request-Id");
+
+	private final String value;
+
+	TurboRequestHeader(String value) {
+		this.value = value;
+	}
+
+	public String getValue() {
+		return value;
+	}
+}
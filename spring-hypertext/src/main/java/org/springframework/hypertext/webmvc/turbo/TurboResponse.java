@@ -15,10 +15,29 @@
  */
 package org.springframework.hypertext.webmvc.turbo;
 
+import java.util.Map;
+
+import org.springframework.hypertext.webmvc.HyperTextModelAndView;
 import org.springframework.hypertext.webmvc.HyperTextResponse;
+import org.springframework.web.servlet.View;
+import org.springframework.web.util.HtmlUtils;
 
 public class TurboResponse extends HyperTextResponse {
 
+	/**
+	 * The content type of a response made of Turbo Stream elements.
+	 */
+	public static final String TURBO_STREAM_VALUE = "text/vnd.turbo-stream.html";
+
+	/**
+	 * The content type of a Turbo Stream response, with the charset that the stream
+	 * elements and the views in them are encoded in.
+	 */
+	private static final String TURBO_STREAM_UTF8_VALUE = TURBO_STREAM_VALUE + ";charset=UTF-8";
+
+	private static final View EMPTY = (model, request, response) -> {
+	};
+
 	private TurboResponse(Builder builder) {
 		super(builder);
 	}
@@ -37,6 +56,114 @@ public class TurboResponse extends HyperTextResponse {
 			return this;
 		}
 
+		/**
+		 * Append the rendered view to the element with the given id.
+		 *
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element
+		 * @return the builder
+		 */
+		public Builder append(String target, String viewName) {
+			return stream(TurboStreamAction.APPEND, target, viewName, null);
+		}
+
+		/**
+		 * Prepend the rendered view to the element with the given id.
+		 *
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element
+		 * @return the builder
+		 */
+		public Builder prepend(String target, String viewName) {
+			return stream(TurboStreamAction.PREPEND, target, viewName, null);
+		}
+
+		/**
+		 * Replace the element with the given id with the rendered view.
+		 *
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element
+		 * @return the builder
+		 */
+		public Builder replace(String target, String viewName) {
+			return stream(TurboStreamAction.REPLACE, target, viewName, null);
+		}
+
+		/**
+		 * Replace the content of the element with the given id with the rendered view.
+		 *
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element
+		 * @return the builder
+		 */
+		public Builder update(String target, String viewName) {
+			return stream(TurboStreamAction.UPDATE, target, viewName, null);
+		}
+
+		/**
+		 * Insert the rendered view before the element with the given id.
+		 *
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element
+		 * @return the builder
+		 */
+		public Builder before(String target, String viewName) {
+			return stream(TurboStreamAction.BEFORE, target, viewName, null);
+		}
+
+		/**
+		 * Insert the rendered view after the element with the given id.
+		 *
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element
+		 * @return the builder
+		 */
+		public Builder after(String target, String viewName) {
+			return stream(TurboStreamAction.AFTER, target, viewName, null);
+		}
+
+		/**
+		 * Remove the element with the given id.
+		 *
+		 * @param target the id of the target element
+		 * @return the builder
+		 */
+		public Builder remove(String target) {
+			return stream(TurboStreamAction.REMOVE, target, null, null);
+		}
+
+		/**
+		 * Add a Turbo Stream element that applies an action to the element with the given
+		 * id. The content of the element is the rendered view, with the implicit model
+		 * plus the given model attributes (so the same view can be used more than once
+		 * with different data). The response gets the Turbo Stream content type and
+		 * each element is written to the client as soon as it has rendered.
+		 *
+		 * @param action   the action to apply
+		 * @param target   the id of the target element
+		 * @param viewName the view to render into the stream element (ignored for
+		 *                 {@link TurboStreamAction#REMOVE})
+		 * @param model    extra model attributes for the view (may be null)
+		 * @return the builder
+		 */
+		public Builder stream(TurboStreamAction action, String target, String viewName, Map<String, ?> model) {
+			String open = "<turbo-stream action=\"" + action.getValue() + "\" target=\""
+					+ HtmlUtils.htmlEscape(target) + "\">";
+			HyperTextModelAndView view;
+			if (action == TurboStreamAction.REMOVE || viewName == null) {
+				view = new HyperTextModelAndView(EMPTY).wrap(open, "</turbo-stream>");
+			}
+			else {
+				view = new HyperTextModelAndView(viewName).wrap(open + "<template>", "</template></turbo-stream>");
+			}
+			if (model != null) {
+				view.addAllObjects(model);
+			}
+			contentType(TURBO_STREAM_UTF8_VALUE);
+			streaming();
+			return view(view);
+		}
+
 	}
 
 }
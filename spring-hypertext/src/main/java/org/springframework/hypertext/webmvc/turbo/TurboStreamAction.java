@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+/**
+ * The actions of a Turbo Stream element.
+ *
+ * @see <a href="https://turbo.hotwired.dev/reference/streams">Turbo Streams
+ *      Reference</a>
+ */
+public enum TurboStreamAction {
+
+	/**
+	 * Appends the content to the end of the target element.
+	 */
+	APPEND("append"),
+	/**
+	 * Prepends the content to the start of the target element.
+	 */
+	PREPEND("prepend"),
+	/**
+	 * Replaces the whole target element with the content.
+	 */
+	REPLACE("replace"),
+	/**
+	 * Replaces the content of the target element, keeping the element itself.
+	 */
+	UPDATE("update"),
+	/**
+	 * Removes the target element. There is no content.
+	 */
+	REMOVE("remove"),
+	/**
+	 * Inserts the content before the target element.
+	 */
+	BEFORE("before"),
+	/**
+	 * Inserts the content after the target element.
+	 */
+	AFTER("after");
+
+	private final String value;
+
+	TurboStreamAction(String value) {
+		this.value = value;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+import org.springframework.hypertext.webmvc.HyperTextFragmentSelector;
+import org.springframework.hypertext.webmvc.HyperTextTargetExtractor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Selects the frame with the id in {@code Turbo-Frame}. Turbo only uses the matching
+ * {@code <turbo-frame>} element of the response, so this can be done even if partial
+ * rendering is not enabled for the other libraries (but only for a page returned from
+ * a handler, and the fragment selector syntax is Thymeleaf's, so it is opt-in).
+ */
+public class TurboTargetExtractor implements HyperTextTargetExtractor {
+
+	private boolean enabledByDefault = false;
+
+	/**
+	 * Narrow views down to the frame even if partial rendering is not enabled globally.
+	 * Default is {@code false}.
+	 *
+	 * @param enabledByDefault the flag to set
+	 */
+	public void setEnabledByDefault(boolean enabledByDefault) {
+		this.enabledByDefault = enabledByDefault;
+	}
+
+	@Override
+	public boolean isEnabledByDefault() {
+		return this.enabledByDefault;
+	}
+
+	@Override
+	public String getHeaderName() {
+		return TurboRequestHeader.TURBO_FRAME.getValue();
+	}
+
+	@Override
+	public String getTarget(HttpServletRequest request) {
+		String frame = TurboRequest.from(request).getFrame();
+		if (frame == null || !HyperTextFragmentSelector.isSelector("#" + frame)) {
+			return null;
+		}
+		return "#" + frame;
+	}
+
+}
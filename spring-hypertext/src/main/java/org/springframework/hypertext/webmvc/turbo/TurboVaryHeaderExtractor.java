@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.hypertext.webmvc.HeaderNameExtractor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Responses to Turbo Frame navigations vary on the {@code Turbo-Frame} header, since
+ * only the frame is rendered (and Turbo discards everything else anyway).
+ */
+public class TurboVaryHeaderExtractor implements HeaderNameExtractor {
+
+	@Override
+	public Set<String> getHeaders(HttpServletRequest request) {
+		if (request.getHeader(TurboRequestHeader.TURBO_FRAME.getValue()) != null) {
+			return Set.of(TurboRequestHeader.TURBO_FRAME.getValue());
+		}
+		return Collections.emptySet();
+	}
+
+	@Override
+	public Set<String> getHeaders(HttpHeaders headers) {
+		if (headers.containsKey(TurboRequestHeader.TURBO_FRAME.getValue())) {
+			return Set.of(TurboRequestHeader.TURBO_FRAME.getValue());
+		}
+		return Collections.emptySet();
+	}
+
+	@Override
+	public Collection<String> getCandidateHeaders() {
+		return List.of(TurboRequestHeader.TURBO_FRAME.getValue());
+	}
+
+	@Override
+	public boolean isExhaustive() {
+		return true;
+	}
+
+	@Override
+	public String getLibrary() {
+		return "turbo";
+	}
+
+}
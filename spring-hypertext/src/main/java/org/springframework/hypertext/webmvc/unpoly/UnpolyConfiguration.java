@@ -18,11 +18,11 @@ package org.springframework.hypertext.webmvc.unpoly;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.hypertext.webmvc.HyperTextConfiguration;
+import org.springframework.hypertext.webmvc.HyperTextConfigurationSelector;
 import org.springframework.hypertext.webmvc.HyperTextHeaderConfiguration;
 
 @Configuration(proxyBeanMethods = false)
-@Import(HyperTextConfiguration.class)
+@Import(HyperTextConfigurationSelector.class)
 public class UnpolyConfiguration implements HyperTextHeaderConfiguration {
 
 	@Bean
@@ -34,4 +34,14 @@ public class UnpolyConfiguration implements HyperTextHeaderConfiguration {
 		return new UnpolyVaryHeaderExtractor();
 	}
 
+	@Bean
+	public UnpolyTargetExtractor unpolyTargetExtractor() {
+		return new UnpolyTargetExtractor();
+	}
+
+	@Bean
+	public UnpolyValidateAdvice unpolyValidateAdvice() {
+		return new UnpolyValidateAdvice();
+	}
+
 }
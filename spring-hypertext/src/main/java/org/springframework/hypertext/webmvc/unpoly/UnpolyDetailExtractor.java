@@ -15,19 +15,66 @@
  */
 package org.springframework.hypertext.webmvc.unpoly;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.hypertext.webmvc.HyperTextDetail;
 import org.springframework.hypertext.webmvc.HyperTextDetailExtractor;
 
+/**
+ * Extracts the {@code X-Up-*} response headers declared by annotations on a handler
+ * method (or its class). The result is computed once per handler method by the
+ * caller and applied to every response.
+ */
 public class UnpolyDetailExtractor implements HyperTextDetailExtractor {
 
 	@Override
 	public Map<String, HyperTextDetail> getDetails(Method method) {
-		// TODO: finish this
-		return new HashMap<>();
+		Map<String, HyperTextDetail> details = new LinkedHashMap<>();
+		string(details, method, UnpolyTitleResponse.class, UnpolyResponseHeader.UP_TITLE);
+		string(details, method, UnpolyLocationResponse.class, UnpolyResponseHeader.UP_LOCATION);
+		string(details, method, UnpolyEvictCacheResponse.class, UnpolyResponseHeader.UP_EVICT_CACHE);
+		string(details, method, UnpolyExpireCacheResponse.class, UnpolyResponseHeader.UP_EXPIRE_CACHE);
+		string(details, method, UnpolyAcceptLayerResponse.class, UnpolyResponseHeader.UP_ACCEPT_LAYER);
+		string(details, method, UnpolyDismissLayerResponse.class, UnpolyResponseHeader.UP_DISMISS_LAYER);
+		AnnotationAttributes events = attributes(method, UnpolyEventsResponse.class);
+		if (events != null) {
+			details.put(UnpolyResponseHeader.UP_EVENTS.getValue(), detail(events.getStringArray("value")));
+		}
+		return details;
+	}
+
+	private void string(Map<String, HyperTextDetail> details, Method method, Class<? extends Annotation> type,
+			UnpolyResponseHeader header) {
+		AnnotationAttributes attrs = attributes(method, type);
+		if (attrs != null) {
+			details.put(header.getValue(), HyperTextDetail.of(attrs.getString("value")));
+		}
+	}
+
+	private AnnotationAttributes attributes(Method method, Class<? extends Annotation> type) {
+		AnnotationAttributes attrs = AnnotatedElementUtils.getMergedAnnotationAttributes(method, type);
+		if (attrs == null) {
+			attrs = AnnotatedElementUtils.getMergedAnnotationAttributes(method.getDeclaringClass(), type);
+		}
+		return attrs;
+	}
+
+	private HyperTextDetail detail(String[] values) {
+		HyperTextDetail detail = HyperTextDetail.of(new LinkedHashMap<>());
+		for (String key : values) {
+			String value = null;
+			if (key.contains("=")) {
+				value = key.substring(key.indexOf("=") + 1).trim();
+				key = key.substring(0, key.indexOf("=")).trim();
+			}
+			detail.asMap().put(key, value == null ? Map.of() : value);
+		}
+		return detail;
 	}
 
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.unpoly;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.hypertext.webmvc.HyperTextRequest;
+import org.springframework.util.StringUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The Unpoly request headers of the current request, parsed once and shared through
+ * the {@link HyperTextRequest}.
+ *
+ * @see <a href="https://unpoly.com/up.protocol">Server protocol</a>
+ */
+public class UnpolyRequest {
+
+	private final String version;
+	private final String target;
+	private final String failTarget;
+	private final String mode;
+	private final String failMode;
+	private final List<String> validate;
+
+	private UnpolyRequest(HyperTextRequest request) {
+		this.version = request.getHeader(UnpolyRequestHeader.UP_VERSION.getValue());
+		this.target = request.getHeader(UnpolyRequestHeader.UP_TARGET.getValue());
+		this.failTarget = request.getHeader(UnpolyRequestHeader.UP_FAIL_TARGET.getValue());
+		this.mode = request.getHeader(UnpolyRequestHeader.UP_MODE.getValue());
+		this.failMode = request.getHeader(UnpolyRequestHeader.UP_FAIL_MODE.getValue());
+		String validate = request.getHeader(UnpolyRequestHeader.UP_VALIDATE.getValue());
+		this.validate = validate == null ? Collections.emptyList()
+				: List.of(StringUtils.tokenizeToStringArray(validate, " "));
+	}
+
+	public static UnpolyRequest from(HyperTextRequest request) {
+		return request.as(UnpolyRequest.class, UnpolyRequest::new);
+	}
+
+	public static UnpolyRequest from(HttpServletRequest request) {
+		return from(HyperTextRequest.from(request));
+	}
+
+	/**
+	 * @return true if the request was issued by Unpoly
+	 */
+	public boolean isUnpoly() {
+		return this.version != null;
+	}
+
+	/**
+	 * @return the version of Unpoly, or null
+	 */
+	public String getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * @return the selector that Unpoly is going to update, or null
+	 */
+	public String getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * @return the selector that Unpoly updates if the response is an error, or null
+	 */
+	public String getFailTarget() {
+		return this.failTarget;
+	}
+
+	/**
+	 * @return the mode of the targeted layer (e.g. "root" or "modal"), or null
+	 */
+	public String getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * @return the mode of the layer that is updated if the response is an error, or null
+	 */
+	public String getFailMode() {
+		return this.failMode;
+	}
+
+	/**
+	 * @return true if the request only validates a form
+	 */
+	public boolean isValidate() {
+		return !this.validate.isEmpty();
+	}
+
+	/**
+	 * @return the names of the form fields that are being validated (empty if this is
+	 *         not a validation request)
+	 */
+	public List<String> getValidate() {
+		return this.validate;
+	}
+
+}
@@ -15,10 +15,12 @@
  */
 package org.springframework.hypertext.webmvc.unpoly;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.springframework.hypertext.webmvc.HyperTextDetail;
 import org.springframework.hypertext.webmvc.HyperTextResponse;
+import org.springframework.util.Assert;
 
 public class UnpolyResponse extends HyperTextResponse {
 
@@ -116,6 +118,28 @@ public class UnpolyResponse extends HyperTextResponse {
 			return add(UnpolyResponseHeader.UP_EVENTS.getValue(), event, detail);
 		}
 
+		/**
+		 * Append a fragment of a form view for each of the fields that are being
+		 * validated, e.g. {@code form :: #email-group} for a field called {@code email}
+		 * and the pattern {@code #%s-group}, so that only the affected form groups are
+		 * rendered. Characters in the field name that are not allowed in a selector
+		 * (e.g. the dot in {@code address.street}) are replaced by {@code -}.
+		 *
+		 * @param viewName the name of the form view (a template, not a fragment)
+		 * @param selector a pattern for the selector of the form group of a field, with
+		 *                 {@code %s} for the field name
+		 * @param fields   the names of the fields, usually
+		 *                 {@link UnpolyRequest#getValidate()}
+		 * @return the builder
+		 */
+		public Builder validate(String viewName, String selector, Collection<String> fields) {
+			Assert.isTrue(!viewName.contains("::"), () -> "View name must not select a fragment: " + viewName);
+			for (String field : fields) {
+				view(viewName + " :: " + String.format(selector, field.replaceAll("[^\\w-]", "-")));
+			}
+			return this;
+		}
+
 	}
 
 	public Map<String, Object> getEvents() {
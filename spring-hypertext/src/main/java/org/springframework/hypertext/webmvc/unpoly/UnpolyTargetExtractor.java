@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.unpoly;
+
+import java.util.Set;
+
+import org.springframework.hypertext.webmvc.HyperTextFragmentSelector;
+import org.springframework.hypertext.webmvc.HyperTextTargetExtractor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Selects the elements in {@code X-Up-Target}. Only simple selectors (an element
+ * name, id or class) are supported; anything else, including Unpoly's own
+ * pseudo-selectors like {@code :main}, renders the whole view.
+ */
+public class UnpolyTargetExtractor implements HyperTextTargetExtractor {
+
+	private static final Set<String> PAGE = Set.of("html", "head", "body");
+
+	@Override
+	public String getHeaderName() {
+		return UnpolyRequestHeader.UP_TARGET.getValue();
+	}
+
+	@Override
+	public String getTarget(HttpServletRequest request) {
+		String target = UnpolyRequest.from(request).getTarget();
+		if (target == null) {
+			return null;
+		}
+		for (String selector : target.split(",")) {
+			selector = selector.trim();
+			if (!HyperTextFragmentSelector.isSelector(selector) || PAGE.contains(selector)) {
+				return null;
+			}
+		}
+		return target;
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.unpoly;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Narrows data binding down to the fields named in {@code X-Up-Validate} for handlers
+ * that are annotated with {@link UnpolyValidate}. Only those fields are bound, and
+ * only validation errors for those fields end up in the binding result, so that the
+ * handler can render just the affected form groups (see
+ * {@link UnpolyResponse.Builder#validate(String, String, java.util.Collection)}).
+ * Global (object level) errors are dropped because they can not be attributed to a
+ * field. Submit handlers without the annotation always bind the whole form.
+ * <p>
+ * If an {@link InitBinder} that runs earlier (e.g. in an advice with a higher precedence)
+ * already restricts the allowed fields, only the fields that are allowed by both are
+ * bound. A controller's own {@link InitBinder} methods run later, so if they set the
+ * allowed fields they replace the narrowed list, and the whole allowed form is bound
+ * (only the errors are still narrowed down).
+ */
+@ControllerAdvice
+public class UnpolyValidateAdvice {
+
+	@InitBinder
+	public void initBinder(WebDataBinder binder, HttpServletRequest request) {
+		if (binder.getTarget() == null && binder.getTargetType() == null) {
+			return;
+		}
+		List<String> fields = UnpolyRequest.from(request).getValidate();
+		if (fields.isEmpty() || !isValidateHandler(request)) {
+			return;
+		}
+		String[] allowed = allowed(binder.getAllowedFields(), fields);
+		if (allowed.length == 0) {
+			// An empty list would allow everything
+			binder.setDisallowedFields("*");
+		}
+		else {
+			binder.setAllowedFields(allowed);
+		}
+		List<Validator> validators = new ArrayList<>();
+		for (Validator validator : binder.getValidators()) {
+			validators.add(new FieldValidator(validator, fields));
+		}
+		if (!validators.isEmpty()) {
+			binder.replaceValidators(validators.toArray(new Validator[0]));
+		}
+	}
+
+	private static boolean isValidateHandler(HttpServletRequest request) {
+		if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+			return handler.hasMethodAnnotation(UnpolyValidate.class)
+					|| AnnotatedElementUtils.hasAnnotation(handler.getBeanType(), UnpolyValidate.class);
+		}
+		return false;
+	}
+
+	/**
+	 * The patterns for the fields to validate (and their nested properties), narrowed
+	 * down to the ones that the existing allowed patterns (if any) also allow. Where
+	 * they overlap in a way that can not be expressed exactly, the result is narrower.
+	 */
+	static String[] allowed(String[] existing, List<String> fields) {
+		Set<String> allowed = new LinkedHashSet<>();
+		for (String field : fields) {
+			if (ObjectUtils.isEmpty(existing)) {
+				allowed.addAll(List.of(field, field + ".*", field + "[*"));
+				continue;
+			}
+			for (String pattern : existing) {
+				if (PatternMatchUtils.simpleMatch(pattern, field)) {
+					allowed.add(field);
+					if (pattern.endsWith("*")) {
+						// Anything that starts with the field is allowed
+						allowed.add(field + ".*");
+						allowed.add(field + "[*");
+					}
+				}
+				else if (pattern.startsWith(field + ".") || pattern.startsWith(field + "[")) {
+					allowed.add(pattern);
+				}
+			}
+		}
+		return allowed.toArray(new String[0]);
+	}
+
+	static boolean matches(String field, List<String> fields) {
+		for (String candidate : fields) {
+			if (field.equals(candidate)) {
+				return true;
+			}
+			if (field.startsWith(candidate) && (field.charAt(candidate.length()) == '.'
+					|| field.charAt(candidate.length()) == '[')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Validates the whole target into a scratch result, and only copies the errors for
+	 * the given fields to the real one.
+	 */
+	static class FieldValidator implements SmartValidator {
+
+		private final Validator delegate;
+
+		private final List<String> fields;
+
+		FieldValidator(Validator delegate, List<String> fields) {
+			this.delegate = delegate;
+			this.fields = fields;
+		}
+
+		@Override
+		public boolean supports(Class<?> clazz) {
+			return this.delegate.supports(clazz);
+		}
+
+		@Override
+		public void validate(Object target, Errors errors) {
+			validate(target, errors, new Object[0]);
+		}
+
+		@Override
+		public void validate(Object target, Errors errors, Object... validationHints) {
+			BeanPropertyBindingResult scratch = new BeanPropertyBindingResult(target, errors.getObjectName());
+			if (this.delegate instanceof SmartValidator smart) {
+				smart.validate(target, scratch, validationHints);
+			}
+			else {
+				this.delegate.validate(target, scratch);
+			}
+			for (FieldError error : scratch.getFieldErrors()) {
+				if (!matches(error.getField(), this.fields)) {
+					continue;
+				}
+				if (errors instanceof BindingResult result) {
+					result.addError(error);
+				}
+				else {
+					errors.rejectValue(error.getField(), error.getCode(), error.getArguments(),
+							error.getDefaultMessage());
+				}
+			}
+		}
+
+	}
+
+}
@@ -15,9 +15,13 @@
  */
 package org.springframework.hypertext.webmvc.unpoly;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.hypertext.webmvc.HeaderNameExtractor;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,5 +38,35 @@ public class UnpolyVaryHeaderExtractor implements HeaderNameExtractor {
 		}
 		return result;
 	}
-	
+
+	@Override
+	public Set<String> getHeaders(HttpHeaders headers) {
+		Set<String> result = new HashSet<>();
+		for (UnpolyRequestHeader header : UnpolyRequestHeader.values()) {
+			if (headers.containsKey(header.getValue())) {
+				result.add(header.getValue());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<String> getCandidateHeaders() {
+		List<String> result = new ArrayList<>();
+		for (UnpolyRequestHeader header : UnpolyRequestHeader.values()) {
+			result.add(header.getValue());
+		}
+		return result;
+	}
+
+	@Override
+	public boolean isExhaustive() {
+		return true;
+	}
+
+	@Override
+	public String getLibrary() {
+		return "unpoly";
+	}
+
 }
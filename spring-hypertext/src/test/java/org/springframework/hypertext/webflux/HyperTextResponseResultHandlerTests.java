@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.hypertext.webmvc.HyperTextResponse;
+import org.springframework.hypertext.webmvc.turbo.TurboResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.result.view.View;
+import org.springframework.web.reactive.result.view.ViewResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+public class HyperTextResponseResultHandlerTests {
+
+	private MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+
+	private View writer = (model, contentType, exchange) -> write(exchange, "<p>" + model.get("name") + "</p>");
+	private View stream = (model, contentType, exchange) -> write(exchange, "<p>stream</p>");
+
+	private ViewResolver resolver = (name, locale) -> Mono.justOrEmpty(Map.of("writer", writer, "stream", stream).get(name));
+
+	private HyperTextResponseResultHandler handler = new HyperTextResponseResultHandler(List.of(resolver),
+			new ObjectMapper());
+
+	@Test
+	void testViews() {
+		render("handle", HyperTextResponse.builder().view("writer").view("stream").build());
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("<p>World</p><p>stream</p>");
+	}
+
+	@Test
+	void testStreaming() {
+		handler.setStreaming(true);
+		render("handle", HyperTextResponse.builder().view("writer").view("stream").build());
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("<p>World</p><p>stream</p>");
+	}
+
+	@Test
+	void testMono() {
+		render("handleMono", Mono.just(HyperTextResponse.builder().view("stream").build()));
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("<p>stream</p>");
+	}
+
+	@Test
+	void testHeaders() {
+		render("handle", HyperTextResponse.builder().view("stream").add("X-Custom-Header", "key", "value").build());
+		assertThat(exchange.getResponse().getHeaders().getFirst("X-Custom-Header")).isEqualTo("{\"key\":\"value\"}");
+	}
+
+	@Test
+	void testContentType() {
+		render("handle", HyperTextResponse.builder().view("stream").contentType("text/vnd.turbo-stream.html").build());
+		assertThat(exchange.getResponse().getHeaders().getContentType())
+				.isEqualTo(MediaType.parseMediaType("text/vnd.turbo-stream.html"));
+	}
+
+	@Test
+	void testTurboStreamNotSupported() {
+		assertThatIllegalStateException()
+				.isThrownBy(() -> render("handle", TurboResponse.builder().append("items", "stream").build()))
+				.withMessageContaining("only supported in Spring MVC");
+		assertThat(exchange.getResponse().isCommitted()).isFalse();
+	}
+
+	@Test
+	void testNotSupported() {
+		assertThat(handler.supports(result("handleString", "foo"))).isFalse();
+	}
+
+	private void render(String method, Object value) {
+		HandlerResult result = result(method, value);
+		assertThat(handler.supports(result)).isTrue();
+		handler.handleResult(exchange, result).block();
+	}
+
+	private HandlerResult result(String method, Object value) {
+		MethodParameter returnType = new MethodParameter(ReflectionUtils.findMethod(getClass(), method), -1);
+		BindingContext context = new BindingContext();
+		context.getModel().addAttribute("name", "World");
+		return new HandlerResult(this, value, returnType, context);
+	}
+
+	private static Mono<Void> write(ServerWebExchange exchange, String content) {
+		DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(content.getBytes(StandardCharsets.UTF_8));
+		return exchange.getResponse().writeWith(Mono.just(buffer));
+	}
+
+	public HyperTextResponse handle() {
+		return null;
+	}
+
+	public Mono<HyperTextResponse> handleMono() {
+		return null;
+	}
+
+	public String handleString() {
+		return null;
+	}
+
+}
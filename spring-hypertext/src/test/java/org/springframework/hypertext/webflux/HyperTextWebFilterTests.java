@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webflux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.htmx.HtmxVaryHeaderExtractor;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HyperTextWebFilterTests {
+
+	private HyperTextWebFilter filter = new HyperTextWebFilter(new HtmxVaryHeaderExtractor(),
+			method -> Map.of("HX-Trigger", HyperTextDetail.of("foo")), new ObjectMapper());
+
+	private MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").header("HX-Request", "true"));
+
+	@Test
+	void testHeaders() {
+		filter.filter(exchange, exchange -> {
+			exchange.getAttributes().put(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler());
+			return exchange.getResponse().setComplete();
+		}).block();
+		assertThat(exchange.getResponse().getHeaders().getFirst("HX-Trigger")).isEqualTo("foo");
+		assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo("HX-Request");
+	}
+
+	@Test
+	void testHandlerHeadersWin() {
+		filter.filter(exchange, exchange -> {
+			exchange.getAttributes().put(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler());
+			exchange.getResponse().getHeaders().set("HX-Trigger", "bar");
+			return exchange.getResponse().setComplete();
+		}).block();
+		assertThat(exchange.getResponse().getHeaders().get("HX-Trigger")).containsExactly("bar");
+	}
+
+	private HandlerMethod handler() {
+		return new HandlerMethod(this, ReflectionUtils.findMethod(getClass(), "handle"));
+	}
+
+	public void handle() {
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.reactive.context.AnnotationConfigReactiveWebApplicationContext;
+import org.springframework.boot.web.reactive.context.StandardReactiveWebEnvironment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.web.context.support.StandardServletEnvironment;
+
+public class HyperTextConfigurationSelectorTests {
+
+	private HyperTextConfigurationSelector selector = new HyperTextConfigurationSelector();
+
+	private AnnotationMetadata metadata = AnnotationMetadata.introspect(getClass());
+
+	@Test
+	void testNonWebApplication() {
+		selector.setEnvironment(new StandardEnvironment());
+		selector.setResourceLoader(new DefaultResourceLoader());
+		assertThat(selector.selectImports(metadata)).containsExactly(HyperTextConfiguration.class.getName());
+	}
+
+	@Test
+	void testServletApplication() {
+		selector.setEnvironment(new StandardServletEnvironment());
+		assertThat(selector.selectImports(metadata)).containsExactly(HyperTextConfiguration.class.getName());
+	}
+
+	@Test
+	void testReactiveEnvironment() {
+		selector.setEnvironment(new StandardReactiveWebEnvironment());
+		assertThat(selector.selectImports(metadata))
+				.containsExactly("org.springframework.hypertext.webflux.HyperTextWebFluxConfiguration");
+	}
+
+	@Test
+	void testReactiveContext() {
+		try (AnnotationConfigReactiveWebApplicationContext context = new AnnotationConfigReactiveWebApplicationContext()) {
+			selector.setEnvironment(new StandardEnvironment());
+			selector.setResourceLoader(context);
+			assertThat(selector.selectImports(metadata))
+					.containsExactly("org.springframework.hypertext.webflux.HyperTextWebFluxConfiguration");
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HyperTextDetailHeaderManagerTests {
+
+	private AtomicInteger count = new AtomicInteger();
+
+	@SuppressWarnings("serial")
+	private HyperTextDetailHeaderManager manager = new HyperTextDetailHeaderManager(new ObjectMapper() {
+		@Override
+		public String writeValueAsString(Object value) throws JsonProcessingException {
+			count.incrementAndGet();
+			return super.writeValueAsString(value);
+		}
+	});
+
+	@Test
+	void testConstantResponseSerializedOnce() {
+		HyperTextResponse constant = HyperTextResponse.builder().add("X-Trigger", "event", Map.of("id", 1))
+				.build();
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			manager.addHeaders(response, constant.getDetails());
+			assertThat(response.getHeader("X-Trigger")).isEqualTo("{\"event\":{\"id\":1}}");
+		}
+		assertThat(count.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testNamesOnly() {
+		HyperTextResponse response = HyperTextResponse.builder().add("X-Trigger", "one").add("X-Trigger", "two")
+				.build();
+		assertThat(manager.getHeaders(response.getDetails()))
+				.containsExactly(HyperTextHeader.of("X-Trigger", "one,two"));
+		assertThat(count.get()).isEqualTo(0);
+	}
+
+	@Test
+	void testMergedConstantNotModified() {
+		HyperTextResponse constant = HyperTextResponse.builder().add("X-Trigger", "one").build();
+		HyperTextResponse response = HyperTextResponse.builder().and(constant).add("X-Trigger", "two").build();
+		assertThat(manager.render(response.getDetails().get("X-Trigger"))).isEqualTo("one,two");
+		assertThat(manager.render(constant.getDetails().get("X-Trigger"))).isEqualTo("one");
+	}
+
+}
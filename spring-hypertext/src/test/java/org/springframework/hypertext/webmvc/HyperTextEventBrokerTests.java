@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.hypertext.webmvc.HyperTextEventBroker.OverflowPolicy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class HyperTextEventBrokerTests {
+
+	private int renders = 0;
+
+	private View menu = (model, request, response) -> {
+		renders++;
+		response.getWriter().write("<ul>" + model.get("item") + "</ul>");
+	};
+	private View main = (model, request, response) -> response.getWriter().write("<main>\n</main>");
+	private View user = (model, request, response) -> response.getWriter()
+			.write(request.getLocale() + ":" + LocaleContextHolder.getLocale() + ":" + request.getAttribute("_csrf")
+					+ ":" + request.getSession(false) + ":" + RequestContextHolder.currentRequestAttributes()
+						.getAttribute("_csrf", ServletRequestAttributes.SCOPE_REQUEST));
+	private View session = (model, request, response) -> response.getWriter().write(request.getSession().getId());
+	private View latin = (model, request, response) -> {
+		response.setContentType("text/html;charset=ISO-8859-1");
+		response.getWriter().write("<p>caf\u00e9</p>");
+	};
+	private Map<String, View> views = Map.of("menu", menu, "main", main, "user", user, "session", session, "latin",
+			latin);
+
+	private HyperTextEventBroker broker = new HyperTextEventBroker(() -> (name, locale) -> views.get(name),
+			AcceptHeaderLocaleResolver::new);
+
+	private MockMvc mvc = MockMvcBuilders.standaloneSetup(new TestController()).build();
+
+	{
+		broker.setTaskExecutor(new SyncTaskExecutor());
+	}
+
+	@Test
+	void testNoSubscribers() throws Exception {
+		assertThat(broker.publish("news", "menu", HyperTextResponse.builder().view("menu").build())).isEqualTo(0);
+		assertThat(renders).isEqualTo(0);
+	}
+
+	@Test
+	void testRenderOnceForAllSubscribers() throws Exception {
+		MockHttpServletResponse first = subscribe();
+		MockHttpServletResponse second = subscribe();
+		assertThat(broker.getSubscriberCount("news")).isEqualTo(2);
+		assertThat(broker.publish("news", "menu", HyperTextResponse.builder().view("menu").view("main").build(),
+				Map.of("item", "foo"))).isEqualTo(2);
+		assertThat(renders).isEqualTo(1);
+		String expected = "event:menu\ndata:<ul>foo</ul><main>\ndata:</main>\n\n";
+		assertThat(first.getContentAsString()).isEqualTo(expected);
+		assertThat(second.getContentAsString()).isEqualTo(expected);
+	}
+
+	@Test
+	void testUnnamedEventWithExplicitLocale() throws Exception {
+		MockHttpServletResponse response = subscribe();
+		broker.publish("news", null, HyperTextResponse.builder().view("menu").build(), Map.of("item", "bar"),
+				Locale.FRENCH);
+		assertThat(response.getContentAsString()).isEqualTo("data:<ul>bar</ul>\n\n");
+	}
+
+	@Test
+	void testRequestOfPublisherNotUsed() throws Exception {
+		MockHttpServletResponse response = subscribe();
+		MockHttpServletRequest publisher = new MockHttpServletRequest();
+		publisher.addPreferredLocale(Locale.GERMAN);
+		publisher.setAttribute("_csrf", "secret");
+		publisher.getSession();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(publisher));
+		try {
+			broker.publish("news", null, HyperTextResponse.builder().view("user").build(), Map.of(), Locale.FRENCH);
+			assertThat(RequestContextHolder.getRequestAttributes())
+					.isInstanceOfSatisfying(ServletRequestAttributes.class,
+							attributes -> assertThat(attributes.getRequest()).isSameAs(publisher));
+		}
+		finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+		assertThat(response.getContentAsString()).isEqualTo("data:fr:fr:null:null:null\n\n");
+	}
+
+	@Test
+	void testSessionNotAvailable() throws Exception {
+		subscribe();
+		assertThatIllegalStateException()
+				.isThrownBy(() -> broker.publish("news", null, HyperTextResponse.builder().view("session").build()));
+	}
+
+	@Test
+	void testDropOldest() throws Exception {
+		broker.setQueueCapacity(1);
+		assertThat(publishSlowly("menu", "main")).isEqualTo("event:main\ndata:<main>\ndata:</main>\n\n");
+	}
+
+	@Test
+	void testDropNewest() throws Exception {
+		broker.setQueueCapacity(1);
+		broker.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+		assertThat(publishSlowly("menu", "main")).isEqualTo("event:menu\ndata:<ul>foo</ul>\n\n");
+	}
+
+	@Test
+	void testCoalesce() throws Exception {
+		broker.setOverflowPolicy(OverflowPolicy.COALESCE);
+		assertThat(publishSlowly("menu", "main", "menu"))
+				.isEqualTo("event:main\ndata:<main>\ndata:</main>\n\nevent:menu\ndata:<ul>foo</ul>\n\n");
+	}
+
+	@Test
+	void testFrame() throws Exception {
+		assertThat(new String(HyperTextEventBroker.frame("menu", "a\r\nb\nc")))
+				.isEqualTo("event:menu\ndata:a\ndata:b\ndata:c\n\n");
+	}
+
+	@Test
+	void testBuffersPooled() throws Exception {
+		HyperTextBufferPool pool = new HyperTextBufferPool();
+		broker.setBufferPool(pool);
+		MockHttpServletResponse response = subscribe();
+		broker.publish("news", null, HyperTextResponse.builder().view("menu").build(), Map.of("item", "foo"));
+		long misses = pool.getMisses();
+		broker.publish("news", null, HyperTextResponse.builder().view("menu").build(), Map.of("item", "bar"));
+		assertThat(response.getContentAsString()).isEqualTo("data:<ul>foo</ul>\n\ndata:<ul>bar</ul>\n\n");
+		// The second event reuses the buffers of the first
+		assertThat(pool.getMisses()).isEqualTo(misses);
+		assertThat(pool.getHits()).isGreaterThan(0);
+		assertThat((long) pool.getPooledCount()).isEqualTo(misses);
+	}
+
+	@Test
+	void testFrameInCharsetOfView() throws Exception {
+		MockHttpServletResponse response = subscribe();
+		broker.publish("news", null, HyperTextResponse.builder().view("latin").build());
+		assertThat(response.getContentAsByteArray())
+				.isEqualTo("data:<p>caf\u00e9</p>\n\n".getBytes(StandardCharsets.UTF_8));
+	}
+
+	private MockHttpServletResponse subscribe() throws Exception {
+		return mvc.perform(get("/events")).andExpect(request().asyncStarted()).andReturn().getResponse();
+	}
+
+	private String publishSlowly(String... events) throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		broker.setTaskExecutor(tasks::add);
+		MockHttpServletResponse response = subscribe();
+		for (String event : events) {
+			broker.publish("news", event, HyperTextResponse.builder().view(event).build(), Map.of("item", "foo"));
+		}
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		return response.getContentAsString();
+	}
+
+	@RestController
+	class TestController {
+
+		@GetMapping("/events")
+		SseEmitter events() {
+			return broker.subscribe("news");
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class HyperTextFragmentCacheTests {
+
+	private HyperTextFragmentCache cache = new HyperTextFragmentCache();
+
+	@Test
+	void testKeyUsesSelectedModelValues() {
+		Object one = cache.key("menu", Locale.ENGLISH, Map.of("app", "foo", "user", "bar"), "app");
+		Object two = cache.key("menu", Locale.ENGLISH, Map.of("app", "foo", "user", "spam"), "app");
+		Object three = cache.key("menu", Locale.FRENCH, Map.of("app", "foo"), "app");
+		assertThat(one).isEqualTo(two);
+		assertThat(one).isNotEqualTo(three);
+	}
+
+	@Test
+	void testEvictLeastRecentlyUsed() {
+		cache.setMaxEntries(2);
+		Object one = key("one");
+		Object two = key("two");
+		cache.put(one, new byte[1], null);
+		cache.put(two, new byte[1], null);
+		cache.get(one);
+		cache.put(key("three"), new byte[1], null);
+		assertThat(cache.get(one)).isNotNull();
+		assertThat(cache.get(two)).isNull();
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void testEvictBySize() {
+		cache.setMaxBytes(10);
+		cache.put(key("one"), new byte[6], null);
+		cache.put(key("two"), new byte[6], null);
+		assertThat(cache.get(key("one"))).isNull();
+		assertThat(cache.getBytes()).isEqualTo(6);
+		cache.put(key("three"), new byte[20], null);
+		assertThat(cache.get(key("three"))).isNull();
+	}
+
+	@Test
+	void testTimeToLive() {
+		cache.setClock(Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
+		cache.setTimeToLive(Duration.ofSeconds(10));
+		cache.put(key("one"), new byte[1], null);
+		cache.setClock(Clock.fixed(Instant.EPOCH.plusSeconds(5), ZoneOffset.UTC));
+		assertThat(cache.get(key("one"))).isNotNull();
+		cache.setClock(Clock.fixed(Instant.EPOCH.plusSeconds(11), ZoneOffset.UTC));
+		assertThat(cache.get(key("one"))).isNull();
+		assertThat(cache.getBytes()).isEqualTo(0);
+	}
+
+	@Test
+	void testEvictView() {
+		cache.put(key("one"), new byte[1], null);
+		cache.put(key("two"), new byte[1], null);
+		cache.evict("one");
+		assertThat(cache.get(key("one"))).isNull();
+		assertThat(cache.get(key("two"))).isNotNull();
+	}
+
+	@Test
+	void testCompression() throws Exception {
+		cache.setCompression(true);
+		byte[] content = "<ul><li>one</li><li>one</li><li>one</li><li>one</li></ul>".repeat(10)
+				.getBytes(StandardCharsets.UTF_8);
+		HyperTextFragmentCache.Fragment fragment = cache.put(key("one"), content, null);
+		assertThat(fragment.getGzipContent()).isNotNull();
+		assertThat(new GZIPInputStream(new ByteArrayInputStream(fragment.getGzipContent())).readAllBytes())
+				.isEqualTo(content);
+		assertThat(cache.getBytes()).isEqualTo(content.length + fragment.getGzipContent().length);
+		assertThat(cache.put(key("two"), new byte[] { 1 }, null).getGzipContent()).isNull();
+	}
+
+	private Object key(String name) {
+		return cache.key(name, Locale.ENGLISH, Map.of());
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hypertext.webmvc.htmx.HtmxTargetExtractor;
+import org.springframework.hypertext.webmvc.turbo.TurboTargetExtractor;
+import org.springframework.hypertext.webmvc.unpoly.UnpolyTargetExtractor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+public class HyperTextFragmentSelectorTests {
+
+	private HyperTextFragmentSelector selector = new HyperTextFragmentSelector(
+			List.of(new HtmxTargetExtractor(), new UnpolyTargetExtractor(), new TurboTargetExtractor()));
+
+	private MockHttpServletRequest request = new MockHttpServletRequest();
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private ViewResolver views = (name, locale) -> (model, request, response) -> {
+		response.setContentType("text/html;charset=UTF-8");
+		response.getWriter().write(switch (name) {
+		case "greet :: #content", "greet :: #messages" -> "<div id=\"content\" title=\"a > b\"><p>Hello, café</p></div>";
+		case "greet" -> "<main><div id=\"content\"></div></main>";
+		default -> "";
+		});
+	};
+
+	@Test
+	void testHtmx() {
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "content");
+		assertThat(selector.select("greet", request, response)).isEqualTo("greet :: #content");
+		assertThat(response.getHeaders("Vary")).contains("HX-Target");
+	}
+
+	@Test
+	void testHtmxBoosted() {
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Boosted", "true");
+		request.addHeader("HX-Target", "content");
+		assertThat(selector.select("greet", request, response)).isEqualTo("greet");
+	}
+
+	@Test
+	void testUnpoly() {
+		request.addHeader("X-Up-Target", "main, .flash");
+		assertThat(selector.select("greet", request, response)).isEqualTo("greet :: main,greet :: .flash");
+	}
+
+	@Test
+	void testUnpolyPseudoSelector() {
+		request.addHeader("X-Up-Target", ":main");
+		assertThat(selector.select("greet", request, response)).isEqualTo("greet");
+	}
+
+	@Test
+	void testTurbo() {
+		request.addHeader("Turbo-Frame", "messages");
+		assertThat(selector.select("greet", request, response)).isEqualTo("greet :: #messages");
+	}
+
+	@Test
+	void testFragmentUnchanged() {
+		request.addHeader("Turbo-Frame", "messages");
+		assertThat(selector.select("greet :: main", request, response)).isEqualTo("greet :: main");
+		assertThat(selector.select("redirect:/", request, response)).isEqualTo("redirect:/");
+	}
+
+	@Test
+	void testHtmxRendersContentOfTarget() throws Exception {
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "content");
+		View view = selector.resolve("greet", views, request, response);
+		view.render(Map.of(), request, response);
+		assertThat(response.getContentAsString()).isEqualTo("<p>Hello, café</p>");
+		assertThat(response.getHeaders("Vary")).contains("HX-Target");
+	}
+
+	@Test
+	void testTurboRendersTargetElement() throws Exception {
+		request.addHeader("Turbo-Frame", "messages");
+		View view = selector.resolve("greet", views, request, response);
+		view.render(Map.of(), request, response);
+		assertThat(response.getContentAsString())
+				.isEqualTo("<div id=\"content\" title=\"a > b\"><p>Hello, café</p></div>");
+	}
+
+	@Test
+	void testTargetNotFound() throws Exception {
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "missing");
+		View view = selector.resolve("greet", views, request, response);
+		view.render(Map.of(), request, response);
+		assertThat(response.getContentAsString()).isEqualTo("<main><div id=\"content\"></div></main>");
+	}
+
+	@Test
+	void testNoFragmentView() {
+		assertThat(selector.resolve("greet", views, request, response)).isNull();
+		request.addHeader("Turbo-Frame", "messages");
+		assertThat(selector.resolve("greet :: main", views, request, response)).isNull();
+	}
+
+	@Test
+	void testInner() {
+		assertThat(HyperTextFragmentView.inner("<div id=\"a\"><p>x</p> y</div>")).isEqualTo("<p>x</p> y");
+		assertThat(HyperTextFragmentView.inner("<input id='a' value='>'/>")).isEmpty();
+		assertThat(HyperTextFragmentView.inner("<br id=\"a\">")).isEmpty();
+	}
+
+	@Test
+	void testNoTarget() {
+		assertThat(selector.select("greet", request, response)).isEqualTo("greet");
+		assertThat(response.getHeaders("Vary")).isEmpty();
+	}
+
+}
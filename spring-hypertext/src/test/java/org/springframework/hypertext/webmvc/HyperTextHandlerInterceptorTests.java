@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HyperTextHandlerInterceptorTests {
+
+	private AtomicInteger count = new AtomicInteger();
+
+	private HyperTextHandlerInterceptor interceptor = new HyperTextHandlerInterceptor(
+			request -> Collections.emptySet(), method -> {
+				count.incrementAndGet();
+				return Map.of("X-Trigger", HyperTextDetail.from(Map.of("event", Map.of())));
+			}, new ObjectMapper());
+
+	@Test
+	void testHeadersComputedOncePerMethod() throws Exception {
+		Method method = ReflectionUtils.findMethod(getClass(), "handler");
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			interceptor.preHandle(new MockHttpServletRequest(), response, new HandlerMethod(this, method));
+			assertThat(response.getHeader("X-Trigger")).isEqualTo("event");
+		}
+		assertThat(count.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testIncludeOnlyHyperTextHandlers() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(HyperTextIncludeView.INCLUDE_ATTRIBUTE, true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertThat(interceptor.preHandle(request, response,
+				new HandlerMethod(this, ReflectionUtils.findMethod(getClass(), "handler")))).isFalse();
+		assertThat(interceptor.preHandle(request, response,
+				new HandlerMethod(this, ReflectionUtils.findMethod(getClass(), "fragment")))).isTrue();
+	}
+
+	@Test
+	void testIncludeNoStaticResources() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ResourceHttpRequestHandler handler = new ResourceHttpRequestHandler();
+		assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+		request.setAttribute(HyperTextIncludeView.INCLUDE_ATTRIBUTE, true);
+		assertThat(interceptor.preHandle(request, response, handler)).isFalse();
+	}
+
+	@Test
+	void testIncludeNoFunctionalRoutes() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HandlerFunction<ServerResponse> handler = serverRequest -> ServerResponse.ok().body("secret");
+		assertThat(interceptor.preHandle(request, response, handler)).isTrue();
+		request.setAttribute(HyperTextIncludeView.INCLUDE_ATTRIBUTE, true);
+		assertThat(interceptor.preHandle(request, response, handler)).isFalse();
+	}
+
+	public void handler() {
+	}
+
+	@HyperTextMapping
+	public void fragment() {
+	}
+
+}
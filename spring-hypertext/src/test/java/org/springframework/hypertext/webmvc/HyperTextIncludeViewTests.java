@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hypertext.webmvc.htmx.HtmxRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+public class HyperTextIncludeViewTests {
+
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private MockHttpServletRequest request = new MockHttpServletRequest() {
+		@Override
+		public RequestDispatcher getRequestDispatcher(String path) {
+			return new RequestDispatcher() {
+				@Override
+				public void forward(ServletRequest request, ServletResponse response) {
+				}
+
+				@Override
+				public void include(ServletRequest request, ServletResponse response)
+						throws IOException {
+					HtmxRequest htmx = HtmxRequest.from((HttpServletRequest) request);
+					response.getWriter().write(((HttpServletRequest) request).getMethod() + ":" + path + ":" + htmx.isHtmx() + ":" + htmx.getTarget() + ":"
+							+ (request.getAttribute(HyperTextIncludeView.INCLUDE_ATTRIBUTE) != null));
+				}
+			};
+		}
+	};
+
+	@Test
+	void testIncludeWithHeaders() throws Exception {
+		new HyperTextIncludeView("/badge", Map.of("HX-Request", "true", "HX-Target", "badge")).render(Map.of(),
+				request, response);
+		assertThat(response.getContentAsString()).isEqualTo("GET:/badge:true:badge:true");
+	}
+
+	@Test
+	void testOuterRequestUnchanged() throws Exception {
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "main");
+		assertThat(HtmxRequest.from(request).getTarget()).isEqualTo("main");
+		new HyperTextIncludeView("/badge", Map.of("HX-Request", "true", "HX-Target", "badge")).render(Map.of(),
+				request, response);
+		assertThat(response.getContentAsString()).isEqualTo("GET:/badge:true:badge:true");
+		assertThat(HtmxRequest.from(request).getTarget()).isEqualTo("main");
+		assertThat(request.getAttribute(HyperTextIncludeView.INCLUDE_ATTRIBUTE)).isNull();
+	}
+
+	@Test
+	void testOuterHypermediaHeadersHidden() throws Exception {
+		request.setMethod("POST");
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "main");
+		request.addHeader("HX-Boosted", "true");
+		request.addHeader("X-Up-Target", "#main");
+		request.addHeader("Turbo-Frame", "main");
+		request.addHeader("Accept-Language", "en");
+		HttpServletRequest included = new HyperTextIncludeView.IncludedRequest(request, Map.of("HX-Request", "true"));
+		assertThat(included.getMethod()).isEqualTo("GET");
+		assertThat(included.getHeader("HX-Request")).isEqualTo("true");
+		assertThat(included.getHeader("HX-Target")).isNull();
+		assertThat(included.getHeader("hx-boosted")).isNull();
+		assertThat(included.getHeaders("X-Up-Target").hasMoreElements()).isFalse();
+		assertThat(included.getHeader("Turbo-Frame")).isNull();
+		assertThat(included.getHeader("Accept-Language")).isEqualTo("en");
+		assertThat(Collections.list(included.getHeaderNames())).containsExactlyInAnyOrder("Accept-Language",
+				"hx-request");
+		new HyperTextIncludeView("/badge", Map.of()).render(Map.of(), request, response);
+		assertThat(response.getContentAsString()).isEqualTo("GET:/badge:false:null:true");
+	}
+
+}
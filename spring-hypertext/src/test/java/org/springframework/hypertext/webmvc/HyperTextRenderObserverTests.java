@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.hypertext.webmvc.htmx.HtmxVaryHeaderExtractor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+
+public class HyperTextRenderObserverTests {
+
+	private MockHttpServletRequest request = new MockHttpServletRequest();
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+	private List<HyperTextRenderObservationContext> observed = new ArrayList<>();
+	private ObservationRegistry registry = ObservationRegistry.create();
+
+	private View menu = (model, request, response) -> response.getWriter().write("<ul>menu</ul>");
+	private View main = (model, request, response) -> response.getOutputStream().write("<main/>".getBytes());
+	private Map<String, View> views = Map.of("menu", menu, "main", main);
+
+	private HyperTextRenderObserver observer = new HyperTextRenderObserver(() -> registry,
+			List.of(new HtmxVaryHeaderExtractor()));
+
+	{
+		registry.observationConfig().observationHandler(new ObservationHandler<HyperTextRenderObservationContext>() {
+			@Override
+			public void onStop(HyperTextRenderObservationContext context) {
+				observed.add(context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return context instanceof HyperTextRenderObservationContext;
+			}
+		});
+		request.addHeader("HX-Request", "true");
+	}
+
+	@Test
+	void testHyperTextResponse() throws Exception {
+		render(false);
+		assertThat(response.getContentAsString()).isEqualTo("<ul>menu</ul><main/>");
+		assertObserved();
+	}
+
+	@Test
+	void testStreamingHyperTextResponse() throws Exception {
+		render(true);
+		assertThat(response.getContentAsString()).isEqualTo("<ul>menu</ul><main/>");
+		assertObserved();
+	}
+
+	@Test
+	void testMultiView() throws Exception {
+		MultiViewResolver resolver = new MultiViewResolver((name, locale) -> views.get(name));
+		resolver.setRenderObserver(observer);
+		resolver.resolveViewName("menu,main", Locale.ENGLISH).render(Map.of(), request, response);
+		assertThat(response.getContentAsString()).isEqualTo("<ul>menu</ul>\n\n<main/>\n\n");
+		assertObserved();
+	}
+
+	@Test
+	void testStreamingMultiView() throws Exception {
+		MultiViewResolver resolver = new MultiViewResolver((name, locale) -> views.get(name));
+		resolver.setStreaming(true);
+		resolver.setRenderObserver(observer);
+		resolver.resolveViewName("menu,main", Locale.ENGLISH).render(Map.of(), request, response);
+		assertThat(response.getContentAsString()).isEqualTo("<ul>menu</ul>\n\n<main/>\n\n");
+		assertObserved();
+	}
+
+	@Test
+	void testPlainRequest() throws Exception {
+		request = new MockHttpServletRequest();
+		render(false);
+		assertThat(observed).extracting(HyperTextRenderObservationContext::getLibrary).containsOnly("none");
+	}
+
+	@Test
+	void testNoop() throws Exception {
+		registry = ObservationRegistry.NOOP;
+		observer = new HyperTextRenderObserver(() -> registry, List.of(new HtmxVaryHeaderExtractor()));
+		render(false);
+		assertThat(response.getContentAsString()).isEqualTo("<ul>menu</ul><main/>");
+		assertThat(observed).isEmpty();
+	}
+
+	private void assertObserved() {
+		assertThat(observed).extracting(HyperTextRenderObservationContext::getViewName).containsExactly("menu", "main");
+		assertThat(observed).extracting(HyperTextRenderObservationContext::getLibrary).containsOnly("htmx");
+		assertThat(observed).extracting(HyperTextRenderObservationContext::getBytes).containsExactly(13L, 7L);
+		assertThat(observed.get(0).getLowCardinalityKeyValues().stream().map(kv -> kv.getKey() + "=" + kv.getValue()))
+				.contains("view=menu", "library=htmx", "exception=none");
+	}
+
+	private void render(boolean streaming) throws Exception {
+		HyperTextResponseHandlerMethodReturnValueHandler handler = new HyperTextResponseHandlerMethodReturnValueHandler(
+				(name, locale) -> views.get(name), () -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		handler.setStreaming(streaming);
+		handler.setRenderObserver(observer);
+		ModelAndViewContainer container = new ModelAndViewContainer();
+		MethodParameter returnType = new MethodParameter(ReflectionUtils.findMethod(getClass(), "handle"), -1);
+		handler.handleReturnValue(HyperTextResponse.builder().view("menu").view("main").build(), returnType,
+				container, new ServletWebRequest(request, response));
+		((View) container.getView()).render(Map.of(), request, response);
+	}
+
+	public HyperTextResponse handle() {
+		return null;
+	}
+
+}
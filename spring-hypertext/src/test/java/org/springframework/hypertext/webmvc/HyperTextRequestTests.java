@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.hypertext.webmvc.htmx.HtmxRequest;
+import org.springframework.hypertext.webmvc.turbo.TurboRequest;
+import org.springframework.hypertext.webmvc.unpoly.UnpolyRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class HyperTextRequestTests {
+
+	private MockHttpServletRequest request = new MockHttpServletRequest();
+
+	@Test
+	void testInactive() {
+		HyperTextRequest hyperText = HyperTextRequest.from(request);
+		assertThat(hyperText.isActive()).isFalse();
+		assertThat(HtmxRequest.from(hyperText).isHtmx()).isFalse();
+		assertThat(HtmxRequest.from(hyperText).getTarget()).isNull();
+		assertThat(UnpolyRequest.from(hyperText).isValidate()).isFalse();
+		assertThat(HyperTextRequest.empty().isActive()).isFalse();
+	}
+
+	@Test
+	void testSharedPerRequest() {
+		request.addHeader("HX-Request", "true");
+		HyperTextRequest hyperText = HyperTextRequest.from(request);
+		assertThat(hyperText.isActive()).isTrue();
+		assertThat(HyperTextRequest.from(request)).isSameAs(hyperText);
+		assertThat(HtmxRequest.from(request)).isSameAs(HtmxRequest.from(hyperText));
+	}
+
+	@Test
+	void testViewCreatedOnceAcrossThreads() throws Exception {
+		HyperTextRequest hyperText = HyperTextRequest.from(request);
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<StringBuilder>> views = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				views.add(executor.submit(() -> {
+					start.await(5, TimeUnit.SECONDS);
+					return hyperText.as(StringBuilder.class, value -> {
+						count.incrementAndGet();
+						return new StringBuilder();
+					});
+				}));
+			}
+			start.countDown();
+			StringBuilder first = views.get(0).get(5, TimeUnit.SECONDS);
+			for (Future<StringBuilder> view : views) {
+				assertThat(view.get(5, TimeUnit.SECONDS)).isSameAs(first);
+			}
+			assertThat(count.get()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testHtmx() {
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Boosted", "true");
+		request.addHeader("HX-Target", "main");
+		request.addHeader("HX-Trigger", "button");
+		request.addHeader("HX-Trigger-Name", "save");
+		request.addHeader("HX-Current-URL", "http://localhost/greet");
+		HtmxRequest htmx = HtmxRequest.from(request);
+		assertThat(htmx.isHtmx()).isTrue();
+		assertThat(htmx.isBoosted()).isTrue();
+		assertThat(htmx.isHistoryRestoreRequest()).isFalse();
+		assertThat(htmx.getTarget()).isEqualTo("main");
+		assertThat(htmx.getTrigger()).isEqualTo("button");
+		assertThat(htmx.getTriggerName()).isEqualTo("save");
+		assertThat(htmx.getCurrentUrl()).isEqualTo("http://localhost/greet");
+	}
+
+	@Test
+	void testUnpoly() {
+		request.addHeader("X-Up-Version", "3.7.0");
+		request.addHeader("X-Up-Target", ".form");
+		request.addHeader("X-Up-Fail-Target", ".errors");
+		request.addHeader("X-Up-Mode", "modal");
+		request.addHeader("X-Up-Validate", "email password");
+		UnpolyRequest unpoly = UnpolyRequest.from(request);
+		assertThat(HyperTextRequest.from(request).isActive()).isTrue();
+		assertThat(unpoly.isUnpoly()).isTrue();
+		assertThat(unpoly.getTarget()).isEqualTo(".form");
+		assertThat(unpoly.getFailTarget()).isEqualTo(".errors");
+		assertThat(unpoly.getMode()).isEqualTo("modal");
+		assertThat(unpoly.isValidate()).isTrue();
+		assertThat(unpoly.getValidate()).containsExactly("email", "password");
+	}
+
+	@Test
+	void testTurbo() {
+		request.addHeader("X-Turbo-Request-Id", "123");
+		request.addHeader("Turbo-Frame", "messages");
+		TurboRequest turbo = TurboRequest.from(request);
+		assertThat(turbo.isTurbo()).isTrue();
+		assertThat(turbo.getFrame()).isEqualTo("messages");
+		assertThat(turbo.getRequestId()).isEqualTo("123");
+	}
+
+	@Test
+	void testReactive() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("HX-Request", "true");
+		headers.add("HX-Target", "main");
+		HyperTextRequest hyperText = HyperTextRequest.from(headers);
+		assertThat(hyperText.isActive()).isTrue();
+		assertThat(HtmxRequest.from(hyperText).getTarget()).isEqualTo("main");
+	}
+
+}
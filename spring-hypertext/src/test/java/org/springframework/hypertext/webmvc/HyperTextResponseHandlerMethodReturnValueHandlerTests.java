@@ -0,0 +1,501 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.hypertext.webmvc.htmx.HtmxResponse;
+import org.springframework.hypertext.webmvc.htmx.HtmxTargetExtractor;
+import org.springframework.hypertext.webmvc.htmx.HxSwapType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+public class HyperTextResponseHandlerMethodReturnValueHandlerTests {
+
+	private MockHttpServletRequest request = new MockHttpServletRequest();
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+	private AtomicBoolean committed = new AtomicBoolean();
+
+	private View writer = (model, request, response) -> {
+		response.setContentType("text/html;charset=UTF-8");
+		response.getWriter().write("<p>" + model.get("name") + "</p>");
+	};
+	private View stream = (model, request, response) -> {
+		committed.set(response.isCommitted());
+		response.getOutputStream().write("<p>stream</p>".getBytes(StandardCharsets.UTF_8));
+	};
+
+	private HyperTextResponseHandlerMethodReturnValueHandler handler = new HyperTextResponseHandlerMethodReturnValueHandler(
+			(name, locale) -> null, () -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+
+	@Test
+	void testBuffered() throws Exception {
+		render(HyperTextResponse.builder().view(writer).view(stream).build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p><p>stream</p>");
+		assertThat(committed.get()).isFalse();
+	}
+
+	@Test
+	void testStreaming() throws Exception {
+		handler.setStreaming(true);
+		render(HyperTextResponse.builder().view(writer).view(stream).build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p><p>stream</p>");
+		assertThat(committed.get()).isTrue();
+	}
+
+	@Test
+	void testStreamingWithBufferedResponse() throws Exception {
+		handler.setStreaming(true);
+		render(HyperTextResponse.builder().view(writer).view(stream).buffered().build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p><p>stream</p>");
+		assertThat(committed.get()).isFalse();
+	}
+
+	@Test
+	void testCachedFragment() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		View menu = (model, request, response) -> {
+			count.incrementAndGet();
+			response.setContentType("text/html;charset=UTF-8");
+			response.getWriter().write("<ul>" + model.get("name") + "</ul>");
+		};
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> "menu".equals(name) ? menu : null,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		handler.setFragmentCache(new HyperTextFragmentCache());
+		for (int i = 0; i < 2; i++) {
+			response = new MockHttpServletResponse();
+			render(HyperTextResponse.builder().view(stream).cache("menu", "name").build());
+			assertThat(response.getContentAsString()).isEqualTo("<p>stream</p><ul>World</ul>");
+		}
+		assertThat(count.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testFragmentOfPrimaryViewOnly() throws Exception {
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler(
+				(name, locale) -> (model, request, response) -> response.getWriter()
+						.write(name.endsWith("#content") ? "<div id=\"content\">" + name + "</div>" : "<" + name + "/>"),
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		handler.setFragmentSelector(new HyperTextFragmentSelector(List.of(new HtmxTargetExtractor())));
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "content");
+		render(HyperTextResponse.builder().view("greet").view("toast").build());
+		assertThat(response.getContentAsString()).isEqualTo("greet :: #content<toast/>");
+		assertThat(response.getHeaders("Vary")).contains("HX-Target");
+	}
+
+	@Test
+	void testOutOfBandNonAsciiContent() throws Exception {
+		View menu = (model, request, response) -> {
+			response.setContentType("text/html;charset=UTF-8");
+			response.getWriter().write("<li>café 中</li>");
+		};
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> "menu".equals(name) ? menu : null,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		handler.setStreaming(true);
+		render(HtmxResponse.builder().oobTemplate("ul", "#menu", HxSwapType.INNER_HTML, "menu", null).view(writer)
+				.build());
+		assertThat(response.getContentAsString())
+				.isEqualTo("<template><ul hx-swap-oob=\"innerHTML:#menu\"><li>café 中</li></ul></template><p>World</p>");
+		response = new MockHttpServletResponse();
+		render(HtmxResponse.builder().oob("#menu", HxSwapType.OUTER_HTML, "menu").view(writer).build());
+		assertThat(response.getContentAsString())
+				.isEqualTo("<template><li hx-swap-oob=\"outerHTML:#menu\">café 中</li></template><p>World</p>");
+	}
+
+	@Test
+	void testStrongETag() throws Exception {
+		request.setMethod("GET");
+		render(HyperTextResponse.builder().view(writer).etag().build());
+		String etag = response.getHeader("ETag");
+		assertThat(etag).startsWith("\"0");
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p>");
+		request.addHeader("If-None-Match", etag);
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view(writer).etag().build());
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getContentAsString()).isEmpty();
+	}
+
+	@Test
+	void testStrongETagGlobalWithStreaming() throws Exception {
+		request.setMethod("GET");
+		handler.setETag(true);
+		handler.setStreaming(true);
+		render(HyperTextResponse.builder().view(writer).view(stream).build());
+		assertThat(response.getHeader("ETag")).isNotNull();
+		assertThat(committed.get()).isFalse();
+	}
+
+	@Test
+	void testNoETagForPost() throws Exception {
+		request.setMethod("POST");
+		render(HyperTextResponse.builder().view(writer).etag().build());
+		assertThat(response.getHeader("ETag")).isNull();
+	}
+
+	@Test
+	void testWeakETagSkipsRendering() throws Exception {
+		request.setMethod("GET");
+		AtomicInteger count = new AtomicInteger();
+		View counter = (model, request, response) -> {
+			count.incrementAndGet();
+			response.getWriter().write("<p>count</p>");
+		};
+		render(HyperTextResponse.builder().view(counter).etag("v1").build());
+		String etag = response.getHeader("ETag");
+		assertThat(etag).startsWith("W/\"");
+		request.addHeader("If-None-Match", etag);
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view(counter).etag("v1").build());
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(count.get()).isEqualTo(1);
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view(counter).etag("v2").build());
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(count.get()).isEqualTo(2);
+	}
+
+	@Test
+	void testWeakETagVaries() throws Exception {
+		request.setMethod("GET");
+		response.addHeader("Vary", "HX-Request");
+		render(HyperTextResponse.builder().view(writer).etag("v1").build());
+		String etag = response.getHeader("ETag");
+		request.addHeader("HX-Request", "true");
+		response = new MockHttpServletResponse();
+		response.addHeader("Vary", "HX-Request");
+		render(HyperTextResponse.builder().view(writer).etag("v1").build());
+		assertThat(response.getHeader("ETag")).isNotEqualTo(etag);
+	}
+
+	@Test
+	void testWeakETagVariesWithTarget() throws Exception {
+		request.setMethod("GET");
+		handler.setFragmentSelector(new HyperTextFragmentSelector(List.of(new HtmxTargetExtractor())));
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "content");
+		render(HyperTextResponse.builder().view(writer).etag("v1").build());
+		String etag = response.getHeader("ETag");
+		request = new MockHttpServletRequest("GET", "/");
+		request.addHeader("HX-Request", "true");
+		request.addHeader("HX-Target", "menu");
+		request.addHeader("If-None-Match", etag);
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view(writer).etag("v1").build());
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isNotEqualTo(etag);
+	}
+
+	@Test
+	void testViewVersionsSkipModel() throws Exception {
+		request.setMethod("GET");
+		AtomicInteger count = new AtomicInteger();
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> writer,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		Supplier<Map<String, Object>> model = () -> {
+			count.incrementAndGet();
+			return Map.of("name", "Lazy");
+		};
+		render(HyperTextResponse.builder().view("main", 1).view("menu", 2).model(model).build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>Lazy</p><p>Lazy</p>");
+		request.addHeader("If-None-Match", response.getHeader("ETag"));
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view("main", 1).view("menu", 2).model(model).build());
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(count.get()).isEqualTo(1);
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view("main", 1).view("menu", 3).model(model).build());
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(count.get()).isEqualTo(2);
+	}
+
+	@Test
+	void testNoVersionWithoutAllViews() throws Exception {
+		request.setMethod("GET");
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> writer,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		render(HyperTextResponse.builder().view("main", 1).view("menu").build());
+		assertThat(response.getHeader("ETag")).isNull();
+	}
+
+	@Test
+	void testStopPollingIfUnchanged() throws Exception {
+		request.setMethod("GET");
+		render(HtmxResponse.builder().view(writer).etag("v1").stopPollingIfUnchanged().build());
+		request.addHeader("If-None-Match", response.getHeader("ETag"));
+		response = new MockHttpServletResponse();
+		render(HtmxResponse.builder().view(writer).etag("v1").stopPollingIfUnchanged().build());
+		assertThat(response.getStatus()).isEqualTo(286);
+		assertThat(response.getContentAsString()).isEmpty();
+	}
+
+	@Test
+	void testConcurrentCacheMissesPutOnce() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger renders = new AtomicInteger();
+		View menu = (model, request, response) -> {
+			renders.incrementAndGet();
+			assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+			response.setContentType("text/html;charset=UTF-8");
+			response.getWriter().write("<ul>" + "<li>World</li>".repeat(20) + "</ul>");
+		};
+		AtomicInteger puts = new AtomicInteger();
+		HyperTextFragmentCache cache = new HyperTextFragmentCache() {
+			@Override
+			public Fragment put(Object key, byte[] content, String contentType) {
+				// Every put compresses the content
+				puts.incrementAndGet();
+				return super.put(key, content, contentType);
+			}
+		};
+		cache.setCompression(true);
+		HyperTextSingleFlight singleFlight = new HyperTextSingleFlight();
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> "menu".equals(name) ? menu : null,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		handler.setFragmentCache(cache);
+		handler.setSingleFlight(singleFlight);
+		List<Thread> threads = new ArrayList<>();
+		List<CompletableFuture<MockHttpServletResponse>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(CompletableFuture.supplyAsync(() -> {
+				synchronized (threads) {
+					threads.add(Thread.currentThread());
+				}
+				MockHttpServletRequest request = new MockHttpServletRequest();
+				request.addHeader("Accept-Encoding", "gzip");
+				MockHttpServletResponse response = new MockHttpServletResponse();
+				try {
+					render(HyperTextResponse.builder().cache("menu").build(), request, response);
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+				return response;
+			}, new SimpleAsyncTaskExecutor()));
+			if (i == 0) {
+				while (singleFlight.getInFlightCount() == 0) {
+					Thread.sleep(10);
+				}
+			}
+		}
+		while (threads.size() < 4 || threads.stream().skip(1).anyMatch(thread -> thread.getState() != Thread.State.WAITING
+				&& thread.getState() != Thread.State.TIMED_WAITING)) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+		for (CompletableFuture<MockHttpServletResponse> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS).getHeader("Content-Encoding")).isEqualTo("gzip");
+		}
+		assertThat(renders.get()).isEqualTo(1);
+		assertThat(puts.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testCompressedFragment() throws Exception {
+		View menu = (model, request, response) -> {
+			response.setContentType("text/html;charset=UTF-8");
+			response.getWriter().write("<ul>" + "<li>World</li>".repeat(20) + "</ul>");
+		};
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> "menu".equals(name) ? menu : null,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		HyperTextFragmentCache cache = new HyperTextFragmentCache();
+		cache.setCompression(true);
+		handler.setFragmentCache(cache);
+		request.addHeader("Accept-Encoding", "gzip, deflate");
+		for (int i = 0; i < 2; i++) {
+			response = new MockHttpServletResponse();
+			render(HyperTextResponse.builder().cache("menu").build());
+			assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+			assertThat(response.getHeaders("Vary")).contains("Accept-Encoding");
+			assertThat(new String(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+					.readAllBytes(), StandardCharsets.UTF_8)).startsWith("<ul><li>World</li>");
+		}
+		request = new MockHttpServletRequest();
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().cache("menu").build());
+		assertThat(response.getHeader("Content-Encoding")).isNull();
+		assertThat(response.getContentAsString()).startsWith("<ul><li>World</li>");
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view(stream).cache("menu").build());
+		assertThat(response.getHeader("Content-Encoding")).isNull();
+	}
+
+	@Test
+	void testSharedFragment() throws Exception {
+		View menu = (model, request, response) -> {
+			response.setContentType("text/html;charset=UTF-8");
+			response.getWriter().write("<ul>" + model.get("name") + "</ul>");
+		};
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> "menu".equals(name) ? menu : null,
+				() -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		render(HyperTextResponse.builder().view(stream).shared("menu", "name").build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>stream</p><ul>World</ul>");
+		assertThat(response.getContentType()).isEqualTo("text/html;charset=UTF-8");
+	}
+
+	@Test
+	void testParallel() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		View slow = (model, request, response) -> {
+			latch.countDown();
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			response.setHeader("X-Slow", "true");
+			response.getWriter().write("<p>slow</p>");
+		};
+		View fast = (model, request, response) -> {
+			latch.countDown();
+			writer.render(model, request, response);
+		};
+		handler.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		render(HyperTextResponse.builder().view(slow).view(fast).parallel().build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>slow</p><p>World</p>");
+		assertThat(response.getHeader("X-Slow")).isEqualTo("true");
+		assertThat(response.getContentType()).isEqualTo("text/html;charset=UTF-8");
+	}
+
+	@Test
+	void testParallelBuffersPooled() throws Exception {
+		HyperTextBufferPool pool = new HyperTextBufferPool();
+		handler.setBufferPool(pool);
+		handler.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		render(HyperTextResponse.builder().view(writer).view(stream).parallel().build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p><p>stream</p>");
+		long misses = pool.getMisses();
+		assertThat((long) pool.getPooledCount()).isEqualTo(misses);
+		response = new MockHttpServletResponse();
+		render(HyperTextResponse.builder().view(writer).view(stream).parallel().build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p><p>stream</p>");
+		assertThat(pool.getHits()).isGreaterThan(0);
+		assertThat((long) pool.getPooledCount()).isEqualTo(pool.getMisses());
+	}
+
+	@Test
+	void testParallelStreaming() throws Exception {
+		handler.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		handler.setParallel(true);
+		handler.setStreaming(true);
+		render(HyperTextResponse.builder().view(writer).view(stream).build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p><p>stream</p>");
+		assertThat(response.isCommitted()).isTrue();
+	}
+
+	@Test
+	void testParallelRequestAttributes() throws Exception {
+		int count = 8;
+		CountDownLatch latch = new CountDownLatch(count);
+		request.setAttribute("shared", "foo");
+		HyperTextResponse.Builder<?> builder = HyperTextResponse.builder().parallel();
+		for (int i = 0; i < count; i++) {
+			String name = String.valueOf(i);
+			builder.view((model, request, response) -> {
+				request.setAttribute("view", name);
+				latch.countDown();
+				assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+				response.getWriter().write(request.getAttribute("shared") + name + request.getAttribute("view"));
+			});
+		}
+		handler.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		render(builder.build());
+		assertThat(response.getContentAsString()).isEqualTo("foo00foo11foo22foo33foo44foo55foo66foo77");
+		assertThat(request.getAttribute("view")).isNull();
+	}
+
+	@Test
+	void testParallelFailure() throws Exception {
+		View broken = (model, request, response) -> {
+			throw new IllegalStateException("Planned");
+		};
+		handler.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		assertThatIllegalStateException()
+				.isThrownBy(() -> render(HyperTextResponse.builder().view(writer).view(broken).parallel().build()))
+				.withMessage("Planned");
+	}
+
+	@Test
+	void testParallelInclude() throws Exception {
+		Thread caller = Thread.currentThread();
+		request = new MockHttpServletRequest() {
+			@Override
+			public RequestDispatcher getRequestDispatcher(String path) {
+				return new RequestDispatcher() {
+					@Override
+					public void forward(ServletRequest request, ServletResponse response) {
+					}
+
+					@Override
+					public void include(ServletRequest request, ServletResponse response) throws IOException {
+						response.getWriter().write(path + ":" + (Thread.currentThread() == caller));
+					}
+				};
+			}
+		};
+		handler.setTaskExecutor(new SimpleAsyncTaskExecutor());
+		render(HyperTextResponse.builder().view(writer).view(new HyperTextIncludeView("/badge", Map.of()))
+				.view(stream).parallel().build());
+		assertThat(response.getContentAsString()).isEqualTo("<p>World</p>/badge:true<p>stream</p>");
+	}
+
+	private void render(HyperTextResponse value) throws Exception {
+		render(value, request, response);
+	}
+
+	private void render(HyperTextResponse value, MockHttpServletRequest request, MockHttpServletResponse response)
+			throws Exception {
+		ModelAndViewContainer container = new ModelAndViewContainer();
+		MethodParameter returnType = new MethodParameter(ReflectionUtils.findMethod(getClass(), "handle"), -1);
+		assertThat(handler.supportsReturnType(returnType)).isTrue();
+		handler.handleReturnValue(value, returnType, container, new ServletWebRequest(request, response));
+		HashMap<String, Object> model = new HashMap<>();
+		model.put("name", "World");
+		((View) container.getView()).render(model, request, response);
+	}
+
+	public HyperTextResponse handle() {
+		return null;
+	}
+
+}
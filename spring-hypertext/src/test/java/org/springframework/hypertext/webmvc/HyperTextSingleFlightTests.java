@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class HyperTextSingleFlightTests {
+
+	private HyperTextSingleFlight singleFlight = new HyperTextSingleFlight();
+
+	private AtomicInteger count = new AtomicInteger();
+
+	private CountDownLatch release = new CountDownLatch(1);
+
+	@Test
+	void testConcurrentRendersShareOutput() throws Exception {
+		Object key = singleFlight.key("menu", Locale.ENGLISH, Map.of("app", "demo"), "", "app");
+		CompletableFuture<HyperTextSingleFlight.Result> first = start(key, this::slow);
+		awaitInFlight();
+		Thread[] waiter = new Thread[1];
+		CompletableFuture<HyperTextSingleFlight.Result> second = CompletableFuture.supplyAsync(() -> {
+			waiter[0] = Thread.currentThread();
+			return execute(key, this::slow);
+		});
+		awaitWaiting(waiter);
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+		assertThat(count.get()).isEqualTo(1);
+		assertThat(singleFlight.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	void testSequentialRendersNotShared() throws Exception {
+		Object key = singleFlight.key("menu", Locale.ENGLISH, Map.of(), "");
+		release.countDown();
+		singleFlight.execute(key, this::slow);
+		singleFlight.execute(key, this::slow);
+		assertThat(count.get()).isEqualTo(2);
+	}
+
+	@Test
+	void testDifferentKeys() {
+		assertThat(singleFlight.key("menu", Locale.ENGLISH, Map.of("app", "demo"), "", "app"))
+				.isEqualTo(singleFlight.key("menu", Locale.ENGLISH, Map.of("app", "demo", "user", "me"), "", "app"));
+		assertThat(singleFlight.key("menu", Locale.ENGLISH, Map.of("app", "demo"), "", "app"))
+				.isNotEqualTo(singleFlight.key("menu", Locale.ENGLISH, Map.of("app", "other"), "", "app"));
+		assertThat(singleFlight.key("menu", Locale.ENGLISH, Map.of(), "\nHX-Request=true"))
+				.isNotEqualTo(singleFlight.key("menu", Locale.ENGLISH, Map.of(), "\nHX-Request=null"));
+	}
+
+	@Test
+	void testFailureShared() throws Exception {
+		Object key = singleFlight.key("menu", Locale.ENGLISH, Map.of(), "");
+		CompletableFuture<HyperTextSingleFlight.Result> first = start(key, () -> {
+			release.await(5, TimeUnit.SECONDS);
+			throw new IllegalStateException("Planned");
+		});
+		awaitInFlight();
+		release.countDown();
+		assertThatIllegalStateException().isThrownBy(() -> {
+			try {
+				first.get(5, TimeUnit.SECONDS);
+			}
+			catch (ExecutionException ex) {
+				throw ex.getCause().getCause();
+			}
+		});
+		assertThat(singleFlight.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	void testErrorNotShared() throws Exception {
+		Object key = singleFlight.key("menu", Locale.ENGLISH, Map.of(), "");
+		CompletableFuture<HyperTextSingleFlight.Result> first = start(key, () -> {
+			release.await(5, TimeUnit.SECONDS);
+			throw new StackOverflowError("Planned");
+		});
+		awaitInFlight();
+		Thread[] waiter = new Thread[1];
+		CompletableFuture<HyperTextSingleFlight.Result> second = CompletableFuture.supplyAsync(() -> {
+			waiter[0] = Thread.currentThread();
+			return execute(key, this::slow);
+		});
+		awaitWaiting(waiter);
+		release.countDown();
+		assertThat(first).failsWithin(5, TimeUnit.SECONDS).withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(StackOverflowError.class);
+		// The waiting render does not block forever, it renders the output itself
+		assertThat(second.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("<ul></ul>".getBytes(StandardCharsets.UTF_8));
+		assertThat(count.get()).isEqualTo(1);
+		assertThat(singleFlight.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	void testMaxWait() throws Exception {
+		singleFlight.setMaxWait(Duration.ofMillis(50));
+		Object key = singleFlight.key("menu", Locale.ENGLISH, Map.of(), "");
+		CountDownLatch done = new CountDownLatch(1);
+		CompletableFuture<HyperTextSingleFlight.Result> first = start(key, () -> {
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			return new HyperTextSingleFlight.Result(new byte[0], "text/html");
+		});
+		awaitInFlight();
+		release.countDown();
+		assertThat(singleFlight.execute(key, this::slow).getContent()).isEqualTo("<ul></ul>".getBytes(StandardCharsets.UTF_8));
+		done.countDown();
+		first.get(5, TimeUnit.SECONDS);
+	}
+
+	private HyperTextSingleFlight.Result slow() throws Exception {
+		count.incrementAndGet();
+		assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+		return new HyperTextSingleFlight.Result("<ul></ul>".getBytes(StandardCharsets.UTF_8), "text/html");
+	}
+
+	private CompletableFuture<HyperTextSingleFlight.Result> start(Object key, HyperTextSingleFlight.Render render) {
+		return CompletableFuture.supplyAsync(() -> execute(key, render));
+	}
+
+	private HyperTextSingleFlight.Result execute(Object key, HyperTextSingleFlight.Render render) {
+		try {
+			return singleFlight.execute(key, render);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void awaitWaiting(Thread[] waiter) throws InterruptedException {
+		while (waiter[0] == null || (waiter[0].getState() != Thread.State.WAITING
+				&& waiter[0].getState() != Thread.State.TIMED_WAITING)) {
+			Thread.sleep(10);
+		}
+	}
+
+	private void awaitInFlight() throws InterruptedException {
+		while (singleFlight.getInFlightCount() == 0) {
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.hypertext.webmvc.htmx.HtmxVaryHeaderExtractor;
+import org.springframework.hypertext.webmvc.unpoly.UnpolyVaryHeaderExtractor;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class HyperTextVaryHeadersTests {
+
+	private MockHttpServletRequest request = new MockHttpServletRequest();
+
+	private HyperTextVaryHeaders vary = new HyperTextVaryHeaders(
+			List.of(new HtmxVaryHeaderExtractor(), new UnpolyVaryHeaderExtractor()));
+
+	@Test
+	void testNoHeaders() {
+		assertThat(vary.getVary(request)).isNull();
+		assertThat(vary.getHeaders(request)).isEmpty();
+	}
+
+	@Test
+	void testSingleHeader() {
+		request.addHeader("HX-Request", "true");
+		assertThat(vary.getVary(request)).isEqualTo("HX-Request");
+	}
+
+	@Test
+	void testSameValueForSameHeaders() {
+		request.addHeader("X-Up-Version", "3.0");
+		request.addHeader("X-Up-Target", "main");
+		String value = vary.getVary(request);
+		assertThat(value).isEqualTo("X-Up-Target,X-Up-Version");
+		MockHttpServletRequest other = new MockHttpServletRequest();
+		other.addHeader("X-Up-Target", "body");
+		other.addHeader("X-Up-Version", "3.1");
+		assertThat(vary.getVary(other)).isSameAs(value);
+	}
+
+	@Test
+	void testReactive() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("HX-Request", "true");
+		assertThat(vary.getVary(headers)).isEqualTo("HX-Request");
+		assertThat(vary.getVary(new HttpHeaders())).isNull();
+	}
+
+	@Test
+	void testExtractorWithoutCandidates() {
+		HeaderNameExtractor custom = new HeaderNameExtractor() {
+			@Override
+			public Set<String> getHeaders(HttpServletRequest request) {
+				return request.getHeader("X-Custom") != null ? Set.of("X-Custom", "HX-Request") : Set.of();
+			}
+		};
+		vary = new HyperTextVaryHeaders(List.of(new HtmxVaryHeaderExtractor(), custom));
+		request.addHeader("HX-Request", "true");
+		assertThat(vary.getVary(request)).isEqualTo("HX-Request");
+		request.addHeader("X-Custom", "true");
+		assertThat(vary.getVary(request)).isEqualTo("HX-Request,X-Custom");
+		assertThat(vary.getCandidateHeaders()).isEmpty();
+	}
+
+	@Test
+	void testCandidatesNotExhaustive() {
+		HeaderNameExtractor custom = new HeaderNameExtractor() {
+			@Override
+			public Set<String> getHeaders(HttpServletRequest request) {
+				return request.getHeader("X-Custom") != null ? Set.of("Accept-Language") : Set.of();
+			}
+
+			@Override
+			public Collection<String> getCandidateHeaders() {
+				return List.of("X-Custom");
+			}
+		};
+		vary = new HyperTextVaryHeaders(List.of(new HtmxVaryHeaderExtractor(), custom));
+		request.addHeader("X-Custom", "true");
+		assertThat(vary.getVary(request)).isEqualTo("Accept-Language");
+		assertThat(vary.isExhaustive()).isFalse();
+	}
+
+	@Test
+	void testManyCandidates() {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < HyperTextVaryHeaders.MAX_CACHED_CANDIDATES + 2; i++) {
+			names.add("X-Header-" + i);
+		}
+		vary = new HyperTextVaryHeaders(List.of(new HeaderNameExtractor() {
+			@Override
+			public Set<String> getHeaders(HttpServletRequest request) {
+				throw new IllegalStateException("Not called");
+			}
+
+			@Override
+			public Collection<String> getCandidateHeaders() {
+				return names;
+			}
+
+			@Override
+			public boolean isExhaustive() {
+				return true;
+			}
+		}));
+		request.addHeader("X-Header-1", "true");
+		request.addHeader("X-Header-11", "true");
+		assertThat(vary.getVary(request)).isEqualTo("X-Header-1,X-Header-11");
+		assertThat(vary.getCandidateHeaders()).hasSize(names.size());
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.view.AbstractCachingViewResolver;
+
+public class MultiViewResolverTests {
+
+	private Map<String, Integer> resolved = new HashMap<>();
+
+	private ViewResolver views = (name, locale) -> {
+		resolved.merge(name, 1, Integer::sum);
+		return (model, request, response) -> response.getWriter().write("<" + name + "/>");
+	};
+
+	private MultiViewResolver resolver = new MultiViewResolver(views);
+
+	@Test
+	void testSingleViewNotCached() throws Exception {
+		resolver.resolveViewName("main", Locale.ENGLISH);
+		resolver.resolveViewName("main", Locale.ENGLISH);
+		assertThat(resolved.get("main")).isEqualTo(2);
+	}
+
+	@Test
+	void testMultiViewCached() throws Exception {
+		View view = resolver.resolveViewName("main, menu", Locale.ENGLISH);
+		assertThat(resolver.resolveViewName("main, menu", Locale.ENGLISH)).isSameAs(view);
+		assertThat(resolved.get("main")).isEqualTo(1);
+		assertThat(resolved.get("menu")).isEqualTo(1);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		view.render(Map.of(), new MockHttpServletRequest(), response);
+		assertThat(response.getContentAsString()).isEqualTo("<main/>\n\n<menu/>\n\n");
+	}
+
+	@Test
+	void testMultiViewCachedPerLocale() throws Exception {
+		View view = resolver.resolveViewName("main,menu", Locale.ENGLISH);
+		assertThat(resolver.resolveViewName("main,menu", Locale.FRENCH)).isNotSameAs(view);
+		assertThat(resolved.get("main")).isEqualTo(2);
+	}
+
+	@Test
+	void testRemoveFromCache() throws Exception {
+		View view = resolver.resolveViewName("main,menu", Locale.ENGLISH);
+		resolver.removeFromCache("main,menu", Locale.ENGLISH);
+		assertThat(resolver.resolveViewName("main,menu", Locale.ENGLISH)).isNotSameAs(view);
+	}
+
+	@Test
+	void testClearCache() throws Exception {
+		View view = resolver.resolveViewName("main,menu", Locale.ENGLISH);
+		resolver.clearCache();
+		assertThat(resolver.resolveViewName("main,menu", Locale.ENGLISH)).isNotSameAs(view);
+	}
+
+	@Test
+	void testCacheLimit() throws Exception {
+		resolver.setCacheLimit(1);
+		View view = resolver.resolveViewName("main,menu", Locale.ENGLISH);
+		resolver.resolveViewName("main,footer", Locale.ENGLISH);
+		assertThat(resolver.resolveViewName("main,menu", Locale.ENGLISH)).isNotSameAs(view);
+	}
+
+	@Test
+	void testNoCacheIfDelegateDoesNotCache() throws Exception {
+		AbstractCachingViewResolver delegate = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				return views.resolveViewName(viewName, locale);
+			}
+		};
+		delegate.setCache(false);
+		resolver = new MultiViewResolver(delegate);
+		assertThat(resolver.isCache()).isFalse();
+		View view = resolver.resolveViewName("main,menu", Locale.ENGLISH);
+		assertThat(resolver.resolveViewName("main,menu", Locale.ENGLISH)).isNotSameAs(view);
+	}
+
+}
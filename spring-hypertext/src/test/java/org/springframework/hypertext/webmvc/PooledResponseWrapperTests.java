@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class PooledResponseWrapperTests {
+
+	private HyperTextBufferPool pool = new HyperTextBufferPool();
+
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Test
+	void testWriterAndStreamInOrder() throws Exception {
+		PooledResponseWrapper wrapper = new PooledResponseWrapper(response, pool);
+		wrapper.setCharacterEncoding("UTF-8");
+		wrapper.getWriter().write("<p>one</p>");
+		wrapper.getOutputStream().write("<p>two</p>".getBytes(StandardCharsets.UTF_8));
+		wrapper.getWriter().write("<p>three</p>");
+		assertThat(response.getContentAsString()).isEmpty();
+		wrapper.copyBodyToResponse();
+		assertThat(response.getContentAsString()).isEqualTo("<p>one</p><p>two</p><p>three</p>");
+		assertThat(response.getContentLength()).isEqualTo(32);
+	}
+
+	@Test
+	void testGrowsAcrossBuffers() throws Exception {
+		byte[] content = new byte[100_000];
+		Arrays.fill(content, (byte) 'x');
+		content[content.length - 1] = 'y';
+		PooledResponseWrapper wrapper = new PooledResponseWrapper(response, pool);
+		wrapper.getOutputStream().write(content, 0, 5000);
+		wrapper.getOutputStream().write(content, 5000, content.length - 5000);
+		assertThat(wrapper.getContentSize()).isEqualTo(content.length);
+		assertThat(wrapper.getContentAsByteArray()).isEqualTo(content);
+		assertThat(wrapper.getContentInputStream().readAllBytes()).isEqualTo(content);
+		wrapper.copyBodyToResponse();
+		assertThat(response.getContentAsByteArray()).isEqualTo(content);
+	}
+
+	@Test
+	void testBuffersReused() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			PooledResponseWrapper wrapper = new PooledResponseWrapper(new MockHttpServletResponse(), pool);
+			wrapper.getOutputStream().write(new byte[10_000]);
+			wrapper.copyBodyToResponse();
+		}
+		// Two buffers (4K and 16K) for each response, all but the first two from the pool
+		assertThat(pool.getMisses()).isEqualTo(2);
+		assertThat(pool.getHits()).isEqualTo(4);
+		assertThat(pool.getHitRate()).isEqualTo(4 / 6.0);
+		assertThat(pool.getPooledCount()).isEqualTo(2);
+	}
+
+	@Test
+	void testNoPooling() throws Exception {
+		HyperTextBufferPool pool = new HyperTextBufferPool(0);
+		for (int i = 0; i < 2; i++) {
+			PooledResponseWrapper wrapper = new PooledResponseWrapper(new MockHttpServletResponse(), pool);
+			wrapper.getOutputStream().write(new byte[10]);
+			wrapper.copyBodyToResponse();
+		}
+		assertThat(pool.getHits()).isEqualTo(0);
+		assertThat(pool.getPooledCount()).isEqualTo(0);
+	}
+
+	@Test
+	void testReleaseOnReset() throws Exception {
+		PooledResponseWrapper wrapper = new PooledResponseWrapper(response, pool);
+		wrapper.getOutputStream().write(new byte[10]);
+		wrapper.resetBuffer();
+		assertThat(wrapper.getContentSize()).isEqualTo(0);
+		assertThat(pool.getPooledCount()).isEqualTo(1);
+	}
+
+}
@@ -19,13 +19,18 @@
 package org.springframework.hypertext.webmvc.htmx;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.HyperTextIncludeView;
+import org.springframework.hypertext.webmvc.HyperTextModelAndView;
 import org.springframework.web.servlet.ModelAndView;
 
 public class HtmxResponseTests {
@@ -228,4 +233,96 @@ public class HtmxResponseTests {
 		assertThat(response.getReswap()).isEqualTo(HtmxReswap.afterBegin());
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testOutOfBandSwaps() {
+		var response = HtmxResponse.builder()
+				.view("greet::main")
+				.oob("#menu", "layout::menu")
+				.oob("#count", HxSwapType.OUTER_HTML, "layout::count", Map.of("count", 2))
+				.build();
+
+		assertThat(response.getViews()).hasSize(3);
+		assertThat(response.getViews()).element(1).isInstanceOfSatisfying(HyperTextModelAndView.class, view -> {
+			assertThat(view.getViewName()).isEqualTo("layout::menu");
+			assertThat(view.getDecorator()).isNull();
+			assertThat(view.getPrefix()).isEqualTo("<div hx-swap-oob=\"innerHTML:#menu\">");
+			assertThat(view.getSuffix()).isEqualTo("</div>");
+		});
+		assertThat(response.getViews()).element(2).isInstanceOfSatisfying(HyperTextModelAndView.class, view -> {
+			assertThat(view.getDecorator().apply("<span id=\"count\">2</span>"))
+					.isEqualTo("<span id=\"count\" hx-swap-oob=\"outerHTML:#count\">2</span>");
+			assertThat(view.getModel()).containsEntry("count", 2);
+		});
+	}
+
+	@Test
+	public void testAndKeepsOutOfBandSwapsOfSameView() {
+		var response = HtmxResponse.builder()
+				.view("greet::main")
+				.oob("#menu", "layout::menu")
+				.and(HtmxResponse.builder().view("greet::main").oob("#sidebar", "layout::menu").build())
+				.build();
+
+		assertThat(response.getViews()).hasSize(3);
+		assertThat(response.getViews()).element(2).isInstanceOfSatisfying(HyperTextModelAndView.class,
+				view -> assertThat(view.getPrefix()).isEqualTo("<div hx-swap-oob=\"innerHTML:#sidebar\">"));
+	}
+
+	@Test
+	public void testOuterHtmlSwapKeepsRootElement() {
+		var decorator = new HtmxOutOfBandDecorator("#count");
+		// The element that replaces the target is the root of the view, so the id survives
+		assertThat(decorator.apply("\n<!-- count -->\n<span title='a > b' id=\"count\">2</span>"))
+				.isEqualTo("\n<!-- count -->\n<span title='a > b' id=\"count\" hx-swap-oob=\"outerHTML:#count\">2</span>");
+		assertThat(decorator.apply("<input id=\"count\"/>"))
+				.isEqualTo("<input id=\"count\" hx-swap-oob=\"outerHTML:#count\"/>");
+		assertThatIllegalStateException().isThrownBy(() -> decorator.apply("2"));
+	}
+
+	@Test
+	public void testTableAndListContentInTemplate() {
+		var response = HtmxResponse.builder()
+				.oobTemplate("tbody", "#rows", HxSwapType.BEFORE_END, "rows::row", null)
+				.oobTemplate("ul", "#menu", HxSwapType.INNER_HTML, "layout::menu", Map.of("active", "home"))
+				.build();
+		assertThat(response.getViews()).element(0).isInstanceOfSatisfying(HyperTextModelAndView.class, view -> {
+			assertThat(view.getPrefix()).isEqualTo("<template><tbody hx-swap-oob=\"beforeend:#rows\">");
+			assertThat(view.getSuffix()).isEqualTo("</tbody></template>");
+		});
+		assertThat(response.getViews()).element(1).isInstanceOfSatisfying(HyperTextModelAndView.class, view -> {
+			assertThat(view.getPrefix()).isEqualTo("<template><ul hx-swap-oob=\"innerHTML:#menu\">");
+			assertThat(view.getModel()).containsEntry("active", "home");
+		});
+		assertThatIllegalArgumentException().isThrownBy(() -> HtmxResponse.builder()
+				.oobTemplate("ul><script", "#menu", HxSwapType.INNER_HTML, "layout::menu", null));
+		assertThat(new HtmxOutOfBandDecorator("#row").apply("<tr id=\"row\"><td>1</td></tr>"))
+				.isEqualTo("<template><tr id=\"row\" hx-swap-oob=\"outerHTML:#row\"><td>1</td></tr></template>");
+	}
+
+	@Test
+	public void testBatch() {
+		var response = HtmxResponse.builder()
+				.batch(List.of("#badge=/badge", ".count=/count?unread=true"), List.of("/badge", "/count"))
+				.build();
+
+		assertThat(response.getViews()).hasSize(2);
+		assertThat(response.getViews()).element(0).isInstanceOfSatisfying(HyperTextModelAndView.class, view -> {
+			assertThat(view.getPrefix()).isEqualTo("<div hx-swap-oob=\"innerHTML:#badge\">");
+			assertThat(view.getView()).isInstanceOfSatisfying(HyperTextIncludeView.class,
+					include -> assertThat(include.getPath()).isEqualTo("/badge"));
+		});
+		assertThat(response.getViews()).element(1).isInstanceOfSatisfying(HyperTextModelAndView.class,
+				view -> assertThat(((HyperTextIncludeView) view.getView()).getPath()).isEqualTo("/count?unread=true"));
+	}
+
+	@Test
+	public void testBatchAllowedPaths() {
+		var response = HtmxResponse.builder()
+				.batch(List.of("#badge=/badge", ".count=/count?unread=true"), List.of("/badge", "/count"))
+				.build();
+		assertThat(response.getViews()).hasSize(2);
+		assertThatIllegalArgumentException().isThrownBy(() -> HtmxResponse.builder()
+				.batch(List.of("#badge=/badge", "#admin=/badge/../admin"), List.of("/badge")));
+	}
+
+}
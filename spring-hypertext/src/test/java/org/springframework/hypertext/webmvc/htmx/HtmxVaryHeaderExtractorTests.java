@@ -18,6 +18,7 @@ package org.springframework.hypertext.webmvc.htmx;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 public class HtmxVaryHeaderExtractorTests {
@@ -38,4 +39,18 @@ public class HtmxVaryHeaderExtractorTests {
 		assertThat(extractor.getHeaders(request)).isEmpty();
 	}
 	
+	@Test
+	void testReactiveHtmx() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HtmxRequestHeader.HX_REQUEST.getValue(), "true");
+		assertThat(extractor.getHeaders(headers)).containsOnly(HtmxRequestHeader.HX_REQUEST.getValue());
+	}
+
+	@Test
+	void testReactiveNotHtmx() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("X-Foo", "true");
+		assertThat(extractor.getHeaders(headers)).isEmpty();
+	}
+
 }
@@ -28,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.hypertext.webmvc.HyperTextDetail;
 import org.springframework.hypertext.webmvc.HyperTextResponse;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.View;
 
 public class HyperTextResponseTests {
 
@@ -93,4 +94,34 @@ public class HyperTextResponseTests {
 		assertThat(response.getViews()).containsOnly(modelAndView);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testDuplicateViewNames() {
+		View view = (model, request, response) -> {
+		};
+		HyperTextResponse response = HyperTextResponse.builder()
+				.view("one")
+				.view(view)
+				.view("two")
+				.view("one")
+				.cache("two")
+				.view(view)
+				.build();
+
+		assertThat(response.getViews()).extracting(mav -> mav.getViewName()).containsExactly("one", null, "two");
+	}
+
+	@Test
+	public void testAndSkipsDuplicates() {
+		View view = (model, request, response) -> {
+		};
+		HyperTextResponse.Builder<?> builder = HyperTextResponse.builder().view("row0");
+		for (int i = 0; i < 50; i++) {
+			builder.and(HyperTextResponse.builder().view("row" + i).view("row" + (i + 1)).view(view).build());
+		}
+		HyperTextResponse response = builder.build();
+
+		assertThat(response.getViews()).hasSize(52);
+		assertThat(response.getViews().iterator().next().getViewName()).isEqualTo("row0");
+	}
+
+}
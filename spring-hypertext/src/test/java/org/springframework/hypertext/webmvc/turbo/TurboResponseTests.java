@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.hypertext.webmvc.HyperTextFragmentSelector;
+import org.springframework.hypertext.webmvc.HyperTextResponseHandlerMethodReturnValueHandler;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TurboResponseTests {
+
+	private MockHttpServletRequest request = new MockHttpServletRequest();
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+	private AtomicBoolean committed = new AtomicBoolean();
+
+	private View item = (model, request, response) -> {
+		response.setContentType("text/html;charset=UTF-8");
+		response.getWriter().write("<li>" + model.get("name") + "</li>");
+	};
+	private View count = (model, request, response) -> {
+		committed.set(response.isCommitted());
+		response.getOutputStream().write("<span>2</span>".getBytes());
+	};
+
+	private HyperTextResponseHandlerMethodReturnValueHandler handler = new HyperTextResponseHandlerMethodReturnValueHandler(
+			(name, locale) -> Map.of("item", item, "count", count).get(name), () -> new AcceptHeaderLocaleResolver(),
+			new ObjectMapper());
+
+	@Test
+	void testStreamActions() throws Exception {
+		render(TurboResponse.builder()
+				.append("items", "item")
+				.stream(TurboStreamAction.PREPEND, "items", "item", Map.of("name", "First"))
+				.update("count", "count")
+				.remove("message")
+				.build());
+		assertThat(response.getContentType()).isEqualTo(TurboResponse.TURBO_STREAM_VALUE + ";charset=UTF-8");
+		assertThat(response.getContentAsString()).isEqualTo(
+				"<turbo-stream action=\"append\" target=\"items\"><template><li>World</li></template></turbo-stream>"
+						+ "<turbo-stream action=\"prepend\" target=\"items\"><template><li>First</li></template></turbo-stream>"
+						+ "<turbo-stream action=\"update\" target=\"count\"><template><span>2</span></template></turbo-stream>"
+						+ "<turbo-stream action=\"remove\" target=\"message\"></turbo-stream>");
+	}
+
+	@Test
+	void testNonAsciiContent() throws Exception {
+		for (boolean buffered : new boolean[] { false, true }) {
+			response = new MockHttpServletResponse();
+			TurboResponse.Builder builder = TurboResponse.builder()
+				.stream(TurboStreamAction.APPEND, "items", "item", Map.of("name", "café 中"))
+				.update("count", "count");
+			render((buffered ? builder.buffered() : builder).build());
+			assertThat(response.getCharacterEncoding()).isEqualTo("UTF-8");
+			assertThat(response.getContentAsString()).isEqualTo(
+					"<turbo-stream action=\"append\" target=\"items\"><template><li>café 中</li></template></turbo-stream>"
+							+ "<turbo-stream action=\"update\" target=\"count\"><template><span>2</span></template></turbo-stream>");
+		}
+	}
+
+	@Test
+	void testStreamReplyToFormInFrame() throws Exception {
+		List<String> names = new ArrayList<>();
+		handler = new HyperTextResponseHandlerMethodReturnValueHandler((name, locale) -> {
+			names.add(name);
+			return Map.of("item", item).get(name);
+		}, () -> new AcceptHeaderLocaleResolver(), new ObjectMapper());
+		handler.setFragmentSelector(new HyperTextFragmentSelector(List.of(new TurboTargetExtractor())));
+		request.setMethod("POST");
+		request.addHeader("Turbo-Frame", "new_item");
+		render(TurboResponse.builder().append("items", "item").build());
+		assertThat(response.getContentAsString()).isEqualTo(
+				"<turbo-stream action=\"append\" target=\"items\"><template><li>World</li></template></turbo-stream>");
+		assertThat(names).containsExactly("item");
+	}
+
+	@Test
+	void testStreamedIncrementally() throws Exception {
+		render(TurboResponse.builder().replace("items", "item").replace("count", "count").build());
+		assertThat(committed.get()).isTrue();
+	}
+
+	@Test
+	void testBufferedIfRequested() throws Exception {
+		render(TurboResponse.builder().replace("items", "item").replace("count", "count").buffered().build());
+		assertThat(committed.get()).isFalse();
+		assertThat(response.getContentType()).isEqualTo(TurboResponse.TURBO_STREAM_VALUE + ";charset=UTF-8");
+	}
+
+	@Test
+	void testTargetEscaped() throws Exception {
+		render(TurboResponse.builder().remove("a\"b").build());
+		assertThat(response.getContentAsString())
+				.isEqualTo("<turbo-stream action=\"remove\" target=\"a&quot;b\"></turbo-stream>");
+	}
+
+	@Test
+	void testMergedActionsKept() throws Exception {
+		TurboResponse other = TurboResponse.builder().append("items", "item").remove("other").build();
+		render(TurboResponse.builder().append("items", "item").remove("message").and(other).build());
+		assertThat(response.getContentAsString()).isEqualTo(
+				"<turbo-stream action=\"append\" target=\"items\"><template><li>World</li></template></turbo-stream>"
+						+ "<turbo-stream action=\"remove\" target=\"message\"></turbo-stream>"
+						+ "<turbo-stream action=\"append\" target=\"items\"><template><li>World</li></template></turbo-stream>"
+						+ "<turbo-stream action=\"remove\" target=\"other\"></turbo-stream>");
+	}
+
+	private void render(TurboResponse value) throws Exception {
+		ModelAndViewContainer container = new ModelAndViewContainer();
+		MethodParameter returnType = new MethodParameter(ReflectionUtils.findMethod(getClass(), "handle"), -1);
+		handler.handleReturnValue(value, returnType, container, new ServletWebRequest(request, response));
+		HashMap<String, Object> model = new HashMap<>();
+		model.put("name", "World");
+		((View) container.getView()).render(model, request, response);
+	}
+
+	public TurboResponse handle() {
+		return null;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.turbo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class TurboVaryHeaderExtractorTests {
+
+	private TurboVaryHeaderExtractor extractor = new TurboVaryHeaderExtractor();
+
+	@Test
+	void testFrame() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(TurboRequestHeader.TURBO_FRAME.getValue(), "messages");
+		assertThat(extractor.getHeaders(request)).containsOnly(TurboRequestHeader.TURBO_FRAME.getValue());
+	}
+
+	@Test
+	void testNotFrame() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(TurboRequestHeader.TURBO_REQUEST_ID.getValue(), "123");
+		assertThat(extractor.getHeaders(request)).isEmpty();
+	}
+
+	@Test
+	void testReactiveFrame() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(TurboRequestHeader.TURBO_FRAME.getValue(), "messages");
+		assertThat(extractor.getHeaders(headers)).containsOnly(TurboRequestHeader.TURBO_FRAME.getValue());
+	}
+
+	@Test
+	void testTargetOptIn() {
+		TurboTargetExtractor target = new TurboTargetExtractor();
+		assertThat(target.isEnabledByDefault()).isFalse();
+		target.setEnabledByDefault(true);
+		assertThat(target.isEnabledByDefault()).isTrue();
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(TurboRequestHeader.TURBO_FRAME.getValue(), "messages");
+		assertThat(target.getTarget(request)).isEqualTo("#messages");
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.unpoly;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hypertext.webmvc.HyperTextDetail;
+import org.springframework.hypertext.webmvc.HyperTextDetailHeaderManager;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class UnpolyDetailExtractorTests {
+
+	private UnpolyDetailExtractor extractor = new UnpolyDetailExtractor();
+
+	@Test
+	void testTitle() {
+		Method method = ReflectionUtils.findMethod(getClass(), "title");
+		Map<String, HyperTextDetail> details = extractor.getDetails(method);
+		assertThat(details.get(UnpolyResponseHeader.UP_TITLE.getValue()).asString()).isEqualTo("Users");
+	}
+
+	@Test
+	void testEvents() {
+		Method method = ReflectionUtils.findMethod(getClass(), "events");
+		Map<String, HyperTextDetail> details = extractor.getDetails(method);
+		assertThat(details.get(UnpolyResponseHeader.UP_EVENTS.getValue()).asMap()).containsKeys("user:created",
+				"user:count");
+	}
+
+	@Test
+	void testCacheAndLayer() {
+		Method method = ReflectionUtils.findMethod(getClass(), "accept");
+		Map<String, HyperTextDetail> details = extractor.getDetails(method);
+		assertThat(details.get(UnpolyResponseHeader.UP_EVICT_CACHE.getValue()).asString()).isEqualTo("/users/*");
+		assertThat(details.get(UnpolyResponseHeader.UP_EXPIRE_CACHE.getValue()).asString()).isEqualTo("*");
+		assertThat(details.get(UnpolyResponseHeader.UP_ACCEPT_LAYER.getValue()).asString()).isEqualTo("null");
+		assertThat(details.get(UnpolyResponseHeader.UP_LOCATION.getValue()).asString()).isEqualTo("/users");
+	}
+
+	@Test
+	void testSameAsBuilder() {
+		Method method = ReflectionUtils.findMethod(getClass(), "events");
+		HyperTextDetailHeaderManager manager = new HyperTextDetailHeaderManager(new ObjectMapper());
+		assertThat(manager.getHeaders(extractor.getDetails(method))).isEqualTo(manager.getHeaders(UnpolyResponse
+				.builder().event("user:created").event("user:count", "3").build().getDetails()));
+	}
+
+	@Test
+	void testClassLevel() {
+		Method method = ReflectionUtils.findMethod(Dismissed.class, "dismiss");
+		Map<String, HyperTextDetail> details = extractor.getDetails(method);
+		assertThat(details.get(UnpolyResponseHeader.UP_DISMISS_LAYER.getValue()).asString()).isEqualTo("null");
+	}
+
+	@Test
+	void testNotUnpoly() {
+		Method method = ReflectionUtils.findMethod(getClass(), "nounpoly");
+		assertThat(extractor.getDetails(method)).isEmpty();
+	}
+
+	@UnpolyTitleResponse("Users")
+	public void title() {
+	}
+
+	@UnpolyEventsResponse({ "user:created", "user:count=3" })
+	public void events() {
+	}
+
+	@UnpolyEvictCacheResponse("/users/*")
+	@UnpolyExpireCacheResponse
+	@UnpolyAcceptLayerResponse
+	@UnpolyLocationResponse("/users")
+	public void accept() {
+	}
+
+	public void nounpoly() {
+	}
+
+	@UnpolyDismissLayerResponse
+	static class Dismissed {
+
+		public void dismiss() {
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.hypertext.webmvc.unpoly;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+public class UnpolyValidateAdviceTests {
+
+	private MockMvc mvc = MockMvcBuilders.standaloneSetup(new TestController())
+			.setControllerAdvice(new UnpolyValidateAdvice()).setValidator(new PersonValidator()).build();
+
+	@Test
+	void testValidateOneField() throws Exception {
+		mvc.perform(post("/validate").header("X-Up-Validate", "email").param("name", "").param("email", "foo"))
+				.andExpect(content().string("name=null,email=foo,errors=[email]"));
+	}
+
+	@Test
+	void testValidateSeveralFields() throws Exception {
+		mvc.perform(post("/validate").header("X-Up-Validate", "name email").param("name", "")
+				.param("email", "foo")).andExpect(content().string("name=,email=foo,errors=[name, email]"));
+	}
+
+	@Test
+	void testFullValidation() throws Exception {
+		mvc.perform(post("/validate").param("name", "").param("email", "foo"))
+				.andExpect(content().string("name=,email=foo,errors=[name, email, global]"));
+	}
+
+	@Test
+	void testSubmitNotNarrowed() throws Exception {
+		mvc.perform(post("/submit").header("X-Up-Validate", "email").param("name", "").param("email", "foo"))
+				.andExpect(content().string("name=,email=foo,errors=[name, email, global]"));
+	}
+
+	@Test
+	void testAllowedFieldsOfApplicationKept() throws Exception {
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(new TestController())
+				.setControllerAdvice(new AllowedFieldsAdvice(), new UnpolyValidateAdvice())
+				.setValidator(new PersonValidator()).build();
+		mvc.perform(post("/validate").header("X-Up-Validate", "name email").param("name", "")
+				.param("email", "foo")).andExpect(content().string("name=,email=null,errors=[name, email]"));
+		mvc.perform(post("/validate").header("X-Up-Validate", "email").param("name", "").param("email", "foo"))
+				.andExpect(content().string("name=null,email=null,errors=[email]"));
+	}
+
+	@Test
+	void testAllowed() {
+		assertThat(UnpolyValidateAdvice.allowed(null, List.of("email"))).containsExactly("email", "email.*",
+				"email[*");
+		assertThat(UnpolyValidateAdvice.allowed(new String[] { "name", "address.street" },
+				List.of("name", "address", "email"))).containsExactly("name", "address.street");
+		assertThat(UnpolyValidateAdvice.allowed(new String[] { "addr*" }, List.of("address", "email")))
+				.containsExactly("address", "address.*", "address[*");
+	}
+
+	@Test
+	void testMatches() {
+		assertThat(UnpolyValidateAdvice.matches("address.street", List.of("address"))).isTrue();
+		assertThat(UnpolyValidateAdvice.matches("tags[0]", List.of("tags"))).isTrue();
+		assertThat(UnpolyValidateAdvice.matches("addresses", List.of("address"))).isFalse();
+	}
+
+	@Test
+	void testValidateResponse() {
+		UnpolyResponse response = UnpolyResponse.builder()
+				.validate("form", "#%s-group", List.of("email", "address.street")).build();
+		assertThat(response.getViews()).extracting("viewName").containsExactly("form :: #email-group",
+				"form :: #address-street-group");
+	}
+
+	@Test
+	void testValidateFragmentRejected() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> UnpolyResponse.builder().validate("users::form", "#%s-group", List.of("email")));
+	}
+
+	@RestController
+	static class TestController {
+
+		@PostMapping("/validate")
+		@UnpolyValidate
+		String validate(@Validated Person person, BindingResult result) {
+			return describe(person, result);
+		}
+
+		@PostMapping("/submit")
+		String submit(@Validated Person person, BindingResult result) {
+			return describe(person, result);
+		}
+
+		private String describe(Person person, BindingResult result) {
+			return "name=" + person.getName() + ",email=" + person.getEmail() + ",errors="
+					+ result.getAllErrors().stream()
+							.map(error -> error.getCode())
+							.toList();
+		}
+
+	}
+
+	@ControllerAdvice
+	@Order(0)
+	static class AllowedFieldsAdvice {
+
+		@InitBinder
+		void initBinder(WebDataBinder binder) {
+			binder.setAllowedFields("name");
+		}
+
+	}
+
+	static class PersonValidator implements Validator {
+
+		@Override
+		public boolean supports(Class<?> clazz) {
+			return Person.class.isAssignableFrom(clazz);
+		}
+
+		@Override
+		public void validate(Object target, Errors errors) {
+			Person person = (Person) target;
+			if (person.getName() == null || person.getName().isEmpty()) {
+				errors.rejectValue("name", "name");
+			}
+			if (person.getEmail() == null || !person.getEmail().contains("@")) {
+				errors.rejectValue("email", "email");
+			}
+			errors.reject("global");
+		}
+
+	}
+
+	public static class Person {
+
+		private String name;
+
+		private String email;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getEmail() {
+			return this.email;
+		}
+
+		public void setEmail(String email) {
+			this.email = email;
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.hypertext.webmvc.unpoly;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 public class UnpolyVaryHeaderExtractorTests {
@@ -46,4 +47,12 @@ public class UnpolyVaryHeaderExtractorTests {
 		assertThat(extractor.getHeaders(request)).isEmpty();
 	}
 	
+	@Test
+	void testReactiveMulti() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(UnpolyRequestHeader.UP_VERSION.getValue(), "1.0.0");
+		headers.add(UnpolyRequestHeader.UP_TARGET.getValue(), "foo");
+		assertThat(extractor.getHeaders(headers)).contains(UnpolyRequestHeader.UP_VERSION.getValue(), UnpolyRequestHeader.UP_TARGET.getValue());
+	}
+
 }